@@ -0,0 +1,123 @@
+package analysis;
+
+import utils.CodeMath;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Geros atsitiktinės generuojančios matricos paieška. Daug atsitiktinių matricų sugeneruojama ir įvertinama
+ * lygiagrečiai: geresnė ta, kurios kodo minimalus atstumas didesnis, o esant vienodam atstumui - ta, kurioje
+ * mažiau minimalaus svorio kodo žodžių (jie dažniausiai ir sukelia dekodavimo klaidas).
+ * Paieška baigiama, kai patikrinamas nurodytas kandidatų skaičius arba baigiasi skirtas laikas.
+ */
+public class MatrixSearch {
+
+    private final int k;
+    private final int n;
+    private final int maxCandidates;
+    private final long timeLimitMillis;
+
+    public MatrixSearch(int k, int n, int maxCandidates, long timeLimitMillis) {
+        if(n > Long.SIZE || k > WeightDistribution.MAX_K) {
+            throw new IllegalArgumentException("Matricos paieška galima tik kai n <= " + Long.SIZE +
+                    " ir k <= " + WeightDistribution.MAX_K + ".");
+        }
+        this.k = k;
+        this.n = n;
+        this.maxCandidates = maxCandidates;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Vienos įvertintos matricos duomenys.
+     */
+    public static class Candidate {
+
+        private final int[][] matrix;
+        private final int minimumDistance;
+        private final long minimumWeightCount;
+
+        private Candidate(int[][] matrix, WeightDistribution distribution) {
+            this.matrix = matrix;
+            minimumDistance = distribution.getMinimumDistance();
+            minimumWeightCount = minimumDistance == 0 ? 0 : distribution.getCount(minimumDistance);
+        }
+
+        /**
+         * @param other     kita matrica.
+         * @return          grąžina true, jeigu ši matrica geresnė už kitą.
+         */
+        boolean isBetterThan(Candidate other) {
+            if(other == null) return true;
+            if(minimumDistance != other.minimumDistance) return minimumDistance > other.minimumDistance;
+            return minimumWeightCount < other.minimumWeightCount;
+        }
+
+        public int[][] getMatrix() {
+            return matrix;
+        }
+
+        public int getMinimumDistance() {
+            return minimumDistance;
+        }
+
+        public long getMinimumWeightCount() {
+            return minimumWeightCount;
+        }
+
+    }
+
+    /**
+     * Vykdoma paieška visuose procesoriaus branduoliuose. Kiekviena gija turi savo atsitiktinių skaičių generatorių
+     * ir geriausią rastą matricą, o pabaigoje išrenkama geriausia iš jų.
+     * @return      grąžina geriausią rastą matricą.
+     */
+    public Candidate search() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        AtomicInteger checked = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Candidate>> futures = new ArrayList<>();
+            for(int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> searchInThread(checked, deadline)));
+            }
+            Candidate best = null;
+            for(Future<Candidate> future : futures) {
+                Candidate candidate = future.get();
+                if(candidate != null && candidate.isBetterThan(best)) best = candidate;
+            }
+            if(best == null) best = evaluate(CodeMath.generateMatrix(k, n - k)); // Biudžetas buvo nulinis.
+            return best;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Matricos paieška nutraukta.", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Matricos paieška nepavyko.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Candidate searchInThread(AtomicInteger checked, long deadline) {
+        Random random = new Random();
+        Candidate best = null;
+        while(checked.getAndIncrement() < maxCandidates && System.currentTimeMillis() < deadline) {
+            Candidate candidate = evaluate(CodeMath.generateMatrix(k, n - k, random));
+            if(candidate.isBetterThan(best)) best = candidate;
+        }
+        return best;
+    }
+
+    private Candidate evaluate(int[][] matrix) {
+        long[] rows = CodeMath.packGeneratorRows(matrix, k, n);
+        return new Candidate(matrix, WeightDistribution.calculate(rows, k, n, false));
+    }
+
+}
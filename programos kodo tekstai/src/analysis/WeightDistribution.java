@@ -0,0 +1,131 @@
+package analysis;
+
+import data.CodeData;
+import java.util.stream.IntStream;
+
+/**
+ * Kodo svorių skirstinys (kiek kodo žodžių turi kiekvieną svorį) ir minimalus atstumas.
+ * Visi 2^k kodo žodžiai perrenkami Grėjaus kodo tvarka: kiekvienas kitas žodis skiriasi nuo ankstesnio viena
+ * generuojančios matricos eilute, todėl jam gauti užtenka vieno XOR su supakuota eilute. Perrinkimas padalijamas
+ * į dalis, kurios skaičiuojamos lygiagrečiai visuose procesoriaus branduoliuose.
+ * Tinka kodams, kuriems n <= 64 ir k <= MAX_K.
+ */
+public class WeightDistribution {
+
+    public static final int MAX_K = 40;
+    private static final int MIN_CHUNK_BITS = 12; // Mažiausia vienos lygiagrečios dalies apimtis: 2^12 žodžių.
+
+    private final int n;
+    private final long[] counts; // counts[w] - kodo žodžių, kurių svoris w, skaičius.
+
+    private WeightDistribution(int n, long[] counts) {
+        this.n = n;
+        this.counts = counts;
+    }
+
+    /**
+     * Apskaičiuojamas kodo svorių skirstinys.
+     * @param codeData      kodo parametrai.
+     * @return              grąžina kodo svorių skirstinį.
+     */
+    public static WeightDistribution calculate(CodeData codeData) {
+        return calculate(codeData.getPackedGeneratorRows(), codeData.getK(), codeData.getN());
+    }
+
+    /**
+     * Apskaičiuojamas kodo svorių skirstinys pagal supakuotas generuojančios matricos eilutes.
+     * @param rows      supakuotos generuojančios matricos eilutės.
+     * @param k         kodo dimensija.
+     * @param n         kodo ilgis.
+     * @return          grąžina kodo svorių skirstinį.
+     */
+    public static WeightDistribution calculate(long[] rows, int k, int n) {
+        return calculate(rows, k, n, true);
+    }
+
+    /**
+     * Apskaičiuojamas kodo svorių skirstinys pagal supakuotas generuojančios matricos eilutes.
+     * @param rows      supakuotos generuojančios matricos eilutės.
+     * @param k         kodo dimensija.
+     * @param n         kodo ilgis.
+     * @param parallel  ar skaičiuoti lygiagrečiai (false, kai pats kvietėjas jau veikia lygiagrečiai).
+     * @return          grąžina kodo svorių skirstinį.
+     */
+    public static WeightDistribution calculate(long[] rows, int k, int n, boolean parallel) {
+        if(k > MAX_K) throw new IllegalArgumentException("Svorių skirstinį galima skaičiuoti tik kai k <= " + MAX_K + ".");
+        if(!parallel) return new WeightDistribution(n, countChunk(rows, n, 0, 1L << k));
+        int parallelBits = Math.max(0, k - MIN_CHUNK_BITS);
+        int maxParallelBits = 32 - Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() * 8 - 1);
+        parallelBits = Math.min(parallelBits, maxParallelBits);
+        int chunkBits = k - parallelBits;
+        long[] counts = IntStream.range(0, 1 << parallelBits)
+                .parallel()
+                .mapToObj(chunk -> countChunk(rows, n, (long) chunk << chunkBits, 1L << chunkBits))
+                .reduce(new long[n + 1], WeightDistribution::add);
+        return new WeightDistribution(n, counts);
+    }
+
+    /**
+     * Perrenkami kodo žodžiai, kurių Grėjaus kodo indeksai yra [start, start + length).
+     */
+    private static long[] countChunk(long[] rows, int n, long start, long length) {
+        long[] counts = new long[n + 1];
+        long gray = start ^ (start >>> 1);
+        long codeword = 0;
+        for(int i = 0; i < rows.length; i++) {
+            if((gray >>> i & 1) != 0) codeword ^= rows[i];
+        }
+        counts[Long.bitCount(codeword)]++;
+        for(long index = start + 1; index < start + length; index++) {
+            codeword ^= rows[Long.numberOfTrailingZeros(index)]; // Grėjaus kode keičiasi mažiausias indekso vienetas.
+            counts[Long.bitCount(codeword)]++;
+        }
+        return counts;
+    }
+
+    private static long[] add(long[] first, long[] second) {
+        long[] sum = new long[first.length];
+        for(int i = 0; i < sum.length; i++) {
+            sum[i] = first[i] + second[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return      grąžina minimalų kodo atstumą (mažiausią nenulinio kodo žodžio svorį) arba 0, jeigu nenulinių
+     *              kodo žodžių nėra.
+     */
+    public int getMinimumDistance() {
+        for(int w = 1; w <= n; w++) {
+            if(counts[w] != 0) return w;
+        }
+        return 0;
+    }
+
+    /**
+     * @param weight    svoris.
+     * @return          grąžina kodo žodžių, turinčių nurodytą svorį, skaičių.
+     */
+    public long getCount(int weight) {
+        return counts[weight];
+    }
+
+    /**
+     * @return      grąžina, kiek klaidų kodas garantuotai ištaiso ((d-1)/2).
+     */
+    public int getCorrectableErrors() {
+        return Math.max(0, (getMinimumDistance() - 1) / 2);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("Minimalus atstumas: ").append(getMinimumDistance())
+                .append(" (garantuotai ištaisoma klaidų: ").append(getCorrectableErrors()).append("). Svorių skirstinys:");
+        for(int w = 0; w <= n; w++) {
+            if(counts[w] != 0) text.append(" ").append(w).append(":").append(counts[w]);
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,34 @@
+package channels;
+
+import java.util.Random;
+
+/**
+ * Kanalas be atminties: kiekvienas bitas iškraipomas su ta pačia tikimybe, nepriklausomai nuo kitų.
+ * Tarpai tarp klaidų pasiskirstę geometriškai.
+ */
+public class BinarySymmetricModel implements SplittableErrorModel {
+
+    private final double errorChance;
+    private final Random random;
+
+    public BinarySymmetricModel(double errorChance, Random random) {
+        this.errorChance = errorChance;
+        this.random = random;
+    }
+
+    @Override
+    public long nextGap() {
+        return ErrorModel.geometric(errorChance, random);
+    }
+
+    @Override
+    public SplittableErrorModel copy(Random random) {
+        return new BinarySymmetricModel(errorChance, random);
+    }
+
+    @Override
+    public double getErrorChance() {
+        return errorChance;
+    }
+
+}
@@ -1,20 +1,41 @@
 package channels;
 
-import utils.CodeMath;
+import metrics.Metrics;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * "Channel" klasė sukuria nepatikimą kanalą be atminties, kuriuo judės pranešimas.
+ * "Channel" klasė sukuria nepatikimą kanalą, kuriuo judės pranešimas. Kurie bitai iškraipomi, nusprendžia
+ * klaidų modelis ("ErrorModel"): numatytasis - kanalas be atminties, bet galima naudoti ir pliūpsnių modelius.
+ * Kanalas visą laiką žino kitos klaidos poziciją bendrame bitų sraute ir peršoka tiesiai iki jos, todėl
+ * klaidingi bitai invertuojami visam buferiui iš karto, netikrinant kiekvieno bito atskirai.
  */
 
-public class Channel {
+public class Channel implements AutoCloseable {
 
-    private final Random random = new Random();
-    private final double errorChance; // Kanalo nepatikimumo rodiklis.
+    protected static final LongAdder TRANSMITTED_BITS = Metrics.counter(Metrics.CHANNEL_BITS);
+    protected static final LongAdder FLIPPED_BITS = Metrics.counter(Metrics.CHANNEL_BITS_FLIPPED);
+
+    private final ErrorModel errorModel;
+    private long position; // Kelintas bitas siunčiamas (nuo srauto pradžios).
+    private long nextErrorPosition; // Kitos klaidos pozicija arba Long.MAX_VALUE, jeigu klaidų nebebus.
 
     public Channel(double errorChance) {
-        this.errorChance = errorChance;
+        this(new BinarySymmetricModel(errorChance, new Random()));
+    }
+
+    /**
+     * @param errorChance   kanalo klaidos tikimybė.
+     * @param seed          atsitiktinių skaičių generatoriaus pradinė reikšmė (klaidos kartojasi su tuo pačiu "seed").
+     */
+    public Channel(double errorChance, long seed) {
+        this(new BinarySymmetricModel(errorChance, new Random(seed)));
+    }
+
+    public Channel(ErrorModel errorModel) {
+        this.errorModel = errorModel;
+        nextErrorPosition = advance(-1);
     }
 
     /**
@@ -24,13 +45,98 @@ public class Channel {
      */
     public int[] transmit(int[] vector) {
         int[] transmitted = Arrays.copyOf(vector, vector.length);
-        for(int i = 0; i < transmitted.length; i++) {
-            double value = random.nextDouble();
-            if(value <= errorChance) {
-                transmitted[i] = CodeMath.changeBit(transmitted[i]);
-            }
+        long end = position + vector.length;
+        int flipped = 0;
+        while(nextErrorPosition < end) {
+            transmitted[(int) (nextErrorPosition - position)] ^= 1;
+            flipped++;
+            nextErrorPosition = advance(nextErrorPosition);
         }
+        finish(vector.length, flipped);
         return transmitted;
     }
 
+    /**
+     * Kanalu siunčiami supakuoti baitai: bitai imami nuo aukščiausiojo, kaip ir skaidant tekstą ar failą.
+     * Baitai iškraipomi vietoje.
+     * @param bytes     siunčiami baitai.
+     * @param length    kiek baitų nuo pradžios siųsti.
+     */
+    public void transmit(byte[] bytes, int length) {
+        long end = position + length * 8L;
+        int flipped = 0;
+        while(nextErrorPosition < end) {
+            int bit = (int) (nextErrorPosition - position);
+            bytes[bit >>> 3] ^= (byte) (0x80 >>> (bit & 7));
+            flipped++;
+            nextErrorPosition = advance(nextErrorPosition);
+        }
+        finish(length * 8L, flipped);
+    }
+
+    private void finish(long bits, int flipped) {
+        position += bits;
+        TRANSMITTED_BITS.add(bits);
+        FLIPPED_BITS.add(flipped);
+    }
+
+    /**
+     * Iškviečiama kiekvienai klaidai, kai ji padaroma.
+     * @param errorPosition     klaidos pozicija bendrame bitų sraute.
+     */
+    protected void onError(long errorPosition) {
+    }
+
+    /**
+     * Praneša apie padarytą klaidą ir apskaičiuoja kitos klaidos poziciją.
+     */
+    private long advance(long errorPosition) {
+        if(errorPosition >= 0) onError(errorPosition);
+        long gap = errorModel.nextGap();
+        if(gap == ErrorModel.NO_MORE_ERRORS || errorPosition + gap + 1 < 0) return Long.MAX_VALUE;
+        return errorPosition + gap + 1;
+    }
+
+    public double getErrorChance() {
+        return errorModel.getErrorChance();
+    }
+
+    /**
+     * @return      grąžina, kiek bitų jau nusiųsta šiuo kanalu.
+     */
+    public long getSentBits() {
+        return position;
+    }
+
+    public ErrorModel getErrorModel() {
+        return errorModel;
+    }
+
+    /**
+     * @return      grąžina, ar kanalą galima padalyti į nepriklausomus kanalus ("split"): tik tada, kai jo klaidų
+     *              modelį galima nukopijuoti.
+     */
+    public boolean isSplittable() {
+        return errorModel instanceof SplittableErrorModel;
+    }
+
+    /**
+     * Sukuriamas naujas kanalas su šio kanalo klaidų modelio kopija (pradinėje būsenoje). Naudojama, kai kelios
+     * gijos siunčia duomenis savais kanalais.
+     * @param random    naujojo kanalo atsitiktinių skaičių generatorius.
+     * @return          grąžina naują kanalą.
+     * @throws IllegalStateException    jeigu kanalo padalyti negalima (žr. "isSplittable").
+     */
+    public Channel split(Random random) {
+        if(!isSplittable()) throw new IllegalStateException("Šio kanalo padalyti į nepriklausomus kanalus negalima.");
+        return new Channel(((SplittableErrorModel) errorModel).copy(random));
+    }
+
+    /**
+     * Paprastas kanalas jokių išteklių nenaudoja, todėl uždaryti nieko nereikia.
+     */
+    @Override
+    public void close() {
+    }
+
 }
@@ -0,0 +1,67 @@
+package channels;
+
+import java.util.Random;
+
+/**
+ * Kanalo klaidų modelis. Klaidos aprašomos ne kiekvienam bitui atskirai, o tarpais: kiek teisingų bitų bus iki
+ * kitos klaidos. Kanalas iš karto peršoka iki kitos klaidos, todėl klaidų generavimo kaina priklauso nuo klaidų,
+ * o ne nuo siunčiamų bitų skaičiaus. Modelis turi būsenos, todėl nėra skirtas naudoti keliose gijose vienu metu.
+ * Modeliai, kuriuos galima nukopijuoti atskiroms gijoms, įgyvendina "SplittableErrorModel".
+ */
+public interface ErrorModel {
+
+    long NO_MORE_ERRORS = Long.MAX_VALUE; // Tarpas, reiškiantis, kad klaidų nebebus.
+
+    /**
+     * @return      grąžina teisingų bitų skaičių iki kitos klaidos (0 - kitas bitas iškraipomas) arba NO_MORE_ERRORS.
+     */
+    long nextGap();
+
+    /**
+     * @return      grąžina vidutinę bito iškraipymo tikimybę.
+     */
+    double getErrorChance();
+
+    /**
+     * Modelis parenkamas pagal aprašą (dalys atskiriamos dvitaškiu):
+     * „bsc“ - kanalas be atminties su tikimybe p;
+     * „ge:pGB:pBG:eG:eB“ - Gilberto-Elioto kanalas (perėjimo į blogą ir į gerą būseną tikimybės ir klaidos
+     * tikimybės geroje bei blogoje būsenoje);
+     * „burst:L“ - L ilgio klaidų pliūpsniai, kurių dažnis parenkamas taip, kad vidutinė klaidos tikimybė būtų p.
+     * @param description   modelio aprašas.
+     * @param errorChance   klaidos tikimybė p („bsc“ ir „burst“ modeliams).
+     * @param random        atsitiktinių skaičių generatorius.
+     * @return              grąžina klaidų modelį (jį galima nukopijuoti).
+     * @throws IllegalArgumentException     jeigu aprašas neteisingas.
+     */
+    static SplittableErrorModel parse(String description, double errorChance, Random random) {
+        String[] parts = description.trim().toLowerCase().split(":");
+        try {
+            if(parts[0].equals("bsc") && parts.length == 1) return new BinarySymmetricModel(errorChance, random);
+            if(parts[0].equals("ge") && parts.length == 5) {
+                return new GilbertElliottModel(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                        Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), random);
+            }
+            if(parts[0].equals("burst") && parts.length == 2) {
+                return FixedBurstModel.withAverageErrorChance(Integer.parseInt(parts[1]), errorChance, random);
+            }
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("Neteisingi kanalo modelio parametrai: " + description);
+        }
+        throw new IllegalArgumentException("Nežinomas kanalo modelis: " + description +
+                " (galimi: „bsc“, „ge:pGB:pBG:eG:eB“, „burst:L“).");
+    }
+
+    /**
+     * Geometrinio skirstinio reikšmė: kiek nesėkmių bus iki pirmos sėkmės, kai sėkmės tikimybė p. Gaunama iš
+     * vieno atsitiktinio skaičiaus (atvirkštinės funkcijos metodu), o ne bandant kiekvieną bitą.
+     * @return      grąžina nesėkmių skaičių arba NO_MORE_ERRORS, jeigu p lygi 0.
+     */
+    static long geometric(double p, Random random) {
+        if(p >= 1) return 0;
+        if(p <= 0) return NO_MORE_ERRORS;
+        double value = Math.floor(Math.log(1 - random.nextDouble()) / Math.log1p(-p)); // 1 - [0, 1) = (0, 1].
+        return value >= NO_MORE_ERRORS ? NO_MORE_ERRORS : (long) value;
+    }
+
+}
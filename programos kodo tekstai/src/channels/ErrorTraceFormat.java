@@ -0,0 +1,19 @@
+package channels;
+
+/**
+ * Klaidų įrašo failo formatas, bendras "RecordingChannel" ir "ReplayChannel" klasėms.
+ * Failo pradžioje yra antraštė: žymė (4 baitai), klaidos tikimybė ("double") ir visų kanalu nusiųstų bitų
+ * skaičius ("long"). Po jos eina klaidų pozicijų tarpai: kiek teisingų bitų buvo prieš kiekvieną klaidą.
+ * Kiekvienas tarpas užrašomas "varint" formatu (po 7 bitus baite, aukščiausias bitas rodo, ar yra tęsinys),
+ * todėl esant mažai klaidos tikimybei failas būna daug mažesnis nei pats bitų srautas.
+ */
+final class ErrorTraceFormat {
+
+    static final int MAGIC = 0x4b4c4149; // "KLAI".
+    static final int HEADER_SIZE = Integer.BYTES + Double.BYTES + Long.BYTES;
+    static final int TOTAL_BITS_OFFSET = Integer.BYTES + Double.BYTES;
+
+    private ErrorTraceFormat() {
+    }
+
+}
@@ -0,0 +1,52 @@
+package channels;
+
+import java.util.Random;
+
+/**
+ * Pliūpsnių kanalas: klaidos ateina L ilgio pliūpsniais (visi pliūpsnio bitai iškraipomi), o tarpai tarp
+ * pliūpsnių pasiskirstę geometriškai su pliūpsnio pradžios tikimybe q.
+ */
+public class FixedBurstModel implements SplittableErrorModel {
+
+    private final int burstLength;
+    private final double burstChance;
+    private final Random random;
+    private int remainingInBurst;
+
+    public FixedBurstModel(int burstLength, double burstChance, Random random) {
+        if(burstLength <= 0) throw new IllegalArgumentException("Pliūpsnio ilgis turi būti teigiamas.");
+        if(burstChance <= 0 || burstChance > 1) throw new IllegalArgumentException("Pliūpsnio tikimybė turi būti (0, 1].");
+        this.burstLength = burstLength;
+        this.burstChance = burstChance;
+        this.random = random;
+    }
+
+    /**
+     * Pliūpsnio tikimybė q parenkama iš lygties p = L / ((1 - q) / q + L), kad vidutinė klaidos tikimybė būtų p.
+     */
+    public static FixedBurstModel withAverageErrorChance(int burstLength, double errorChance, Random random) {
+        if(errorChance <= 0 || errorChance >= 1) throw new IllegalArgumentException("Klaidos tikimybė turi būti tarp 0 ir 1.");
+        return new FixedBurstModel(burstLength, errorChance / (burstLength * (1 - errorChance) + errorChance), random);
+    }
+
+    @Override
+    public long nextGap() {
+        if(remainingInBurst > 0) {
+            remainingInBurst--;
+            return 0;
+        }
+        remainingInBurst = burstLength - 1;
+        return ErrorModel.geometric(burstChance, random);
+    }
+
+    @Override
+    public SplittableErrorModel copy(Random random) {
+        return new FixedBurstModel(burstLength, burstChance, random);
+    }
+
+    @Override
+    public double getErrorChance() {
+        return burstLength / ((1 - burstChance) / burstChance + burstLength);
+    }
+
+}
@@ -0,0 +1,79 @@
+package channels;
+
+import java.util.Random;
+
+/**
+ * Gilberto-Elioto kanalas su dviem būsenomis: gera (retos klaidos) ir bloga (dažnos klaidos). Po kiekvieno bito
+ * iš geros būsenos į blogą pereinama su tikimybe pGB, iš blogos į gerą - su tikimybe pBG, todėl klaidos
+ * susitelkia į pliūpsnius. Būsenos trukmė ir tarpas iki klaidos būsenoje traukiami iš geometrinio skirstinio,
+ * todėl nereikia tikrinti kiekvieno bito atskirai.
+ */
+public class GilbertElliottModel implements SplittableErrorModel {
+
+    private final double[] leaveChance; // Tikimybė po bito palikti būseną (0 - gera, 1 - bloga).
+    private final double[] stateErrorChance;
+    private final Random random;
+    private int state;
+    private long remaining; // Kiek bitų dar liko dabartinėje būsenoje.
+
+    public GilbertElliottModel(double goodToBad, double badToGood, double goodErrorChance, double badErrorChance,
+                               Random random) {
+        for(double value : new double[] {goodToBad, badToGood, goodErrorChance, badErrorChance}) {
+            if(value < 0 || value > 1) throw new IllegalArgumentException("Tikimybės turi būti tarp 0 ir 1.");
+        }
+        if(goodToBad + badToGood == 0) throw new IllegalArgumentException("Bent viena perėjimo tikimybė turi būti teigiama.");
+        leaveChance = new double[] {goodToBad, badToGood};
+        stateErrorChance = new double[] {goodErrorChance, badErrorChance};
+        this.random = random;
+        state = random.nextDouble() < getBadStateChance() ? 1 : 0; // Pradedama iš stacionaraus skirstinio.
+        remaining = dwell();
+    }
+
+    /**
+     * Dėl geometrinio skirstinio savybės „be atminties“ būsenos likutyje tarpą iki klaidos galima traukti iš naujo
+     * kiekvieną kartą. Jeigu klaida būsenoje neįvyksta, likutis pridedamas prie tarpo ir pereinama į kitą būseną.
+     */
+    @Override
+    public long nextGap() {
+        long gap = 0;
+        while(true) {
+            long errorGap = ErrorModel.geometric(stateErrorChance[state], random);
+            if(errorGap < remaining) {
+                remaining -= errorGap + 1;
+                return gap + errorGap;
+            }
+            if(remaining == NO_MORE_ERRORS) return NO_MORE_ERRORS; // Būsena nebesikeis ir klaidų joje nebus.
+            gap += remaining;
+            if(gap < 0) return NO_MORE_ERRORS;
+            state = 1 - state;
+            remaining = dwell();
+        }
+    }
+
+    /**
+     * @return      grąžina būsenos trukmę bitais (bent vienas bitas).
+     */
+    private long dwell() {
+        long failures = ErrorModel.geometric(leaveChance[state], random);
+        return failures == NO_MORE_ERRORS ? NO_MORE_ERRORS : failures + 1;
+    }
+
+    /**
+     * @return      grąžina stacionarią tikimybę būti blogoje būsenoje.
+     */
+    public double getBadStateChance() {
+        return leaveChance[0] / (leaveChance[0] + leaveChance[1]);
+    }
+
+    @Override
+    public SplittableErrorModel copy(Random random) {
+        return new GilbertElliottModel(leaveChance[0], leaveChance[1], stateErrorChance[0], stateErrorChance[1], random);
+    }
+
+    @Override
+    public double getErrorChance() {
+        double bad = getBadStateChance();
+        return (1 - bad) * stateErrorChance[0] + bad * stateErrorChance[1];
+    }
+
+}
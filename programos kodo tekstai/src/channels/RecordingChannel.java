@@ -0,0 +1,94 @@
+package channels;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Kanalas, kuris veikia kaip įprastas atsitiktinis kanalas, bet visas padarytas klaidas įrašo į failą.
+ * Vėliau tą patį klaidų srautą galima atkurti su "ReplayChannel" ir palyginti skirtingus kodus tomis pačiomis
+ * sąlygomis. Įrašoma per buferį, o failas užbaigiamas tik iškvietus "close()".
+ */
+public class RecordingChannel extends Channel {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel file;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long lastErrorPosition = -1;
+    private boolean closed;
+
+    public RecordingChannel(double errorChance, Path path) throws IOException {
+        this(new BinarySymmetricModel(errorChance, new Random()), path);
+    }
+
+    /**
+     * @param errorModel    klaidų modelis (į failo antraštę įrašoma jo vidutinė klaidos tikimybė).
+     * @param path          failas, į kurį įrašomos klaidos.
+     */
+    public RecordingChannel(ErrorModel errorModel, Path path) throws IOException {
+        super(errorModel);
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(ErrorTraceFormat.MAGIC).putDouble(errorModel.getErrorChance()).putLong(0); // Bitų skaičius įrašomas uždarant.
+    }
+
+    /**
+     * Įrašomas vienas klaidų srautas, todėl kanalo padalyti negalima: kiti kanalai įrašo neapimtų.
+     */
+    @Override
+    public boolean isSplittable() {
+        return false;
+    }
+
+    @Override
+    protected void onError(long errorPosition) {
+        writeGap(errorPosition - lastErrorPosition - 1);
+        lastErrorPosition = errorPosition;
+    }
+
+    /**
+     * Tarpas užrašomas "varint" formatu.
+     */
+    private void writeGap(long gap) {
+        if(buffer.remaining() < 10) flush(); // Ilgiausias "long" užrašas - 10 baitų.
+        while((gap & ~0x7FL) != 0) {
+            buffer.put((byte) ((gap & 0x7F) | 0x80));
+            gap >>>= 7;
+        }
+        buffer.put((byte) gap);
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while(buffer.hasRemaining()) file.write(buffer);
+        } catch(IOException e) {
+            throw new UncheckedIOException("Nepavyko įrašyti kanalo klaidų į failą.", e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Išrašomi likę klaidų tarpai, į antraštę įrašomas nusiųstų bitų skaičius ir failas uždaromas.
+     * Pakartotinis iškvietimas nieko nedaro, todėl uždaryti galima ir įprastai, ir programai baigiantis.
+     */
+    @Override
+    public synchronized void close() {
+        if(closed) return;
+        closed = true;
+        flush();
+        try {
+            ByteBuffer totalBits = ByteBuffer.allocate(Long.BYTES).putLong(0, getSentBits());
+            file.write(totalBits, ErrorTraceFormat.TOTAL_BITS_OFFSET);
+            file.close();
+        } catch(IOException e) {
+            throw new UncheckedIOException("Nepavyko užbaigti kanalo klaidų failo.", e);
+        }
+    }
+
+}
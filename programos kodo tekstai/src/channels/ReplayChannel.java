@@ -0,0 +1,101 @@
+package channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Kanalas, kuris atkuria anksčiau su "RecordingChannel" įrašytą klaidų srautą. Failas skaitomas per atmintyje
+ * atvaizduotą ("memory-mapped") buferį, o atsitiktinių skaičių visai negeneruojama: įrašyti tarpai tarp klaidų
+ * tiesiog naudojami kaip klaidų modelis. Taip skirtingus kodus galima lyginti su lygiai tomis pačiomis kanalo
+ * klaidomis. Klaidų seka tik viena, todėl kanalo padalyti į nepriklausomus kanalus negalima.
+ */
+public class ReplayChannel extends Channel {
+
+    private final long totalBits;
+
+    public ReplayChannel(Path path) throws IOException {
+        this(new TraceModel(path));
+    }
+
+    private ReplayChannel(TraceModel model) {
+        super(model);
+        totalBits = model.totalBits;
+    }
+
+    @Override
+    public int[] transmit(int[] vector) {
+        checkRemaining(vector.length);
+        return super.transmit(vector);
+    }
+
+    @Override
+    public void transmit(byte[] bytes, int length) {
+        checkRemaining(length * 8L);
+        super.transmit(bytes, length);
+    }
+
+    private void checkRemaining(long bits) {
+        if(getSentBits() + bits > totalBits) {
+            throw new IllegalStateException("Kanalo klaidų įrašas per trumpas: įrašyta " + totalBits +
+                    " bitų, o bandoma siųsti " + (getSentBits() + bits) + ".");
+        }
+    }
+
+    public long getTotalBits() {
+        return totalBits;
+    }
+
+    /**
+     * Klaidų modelis, kurio tarpai nuskaitomi iš įrašo.
+     */
+    private static class TraceModel implements ErrorModel {
+
+        private final MappedByteBuffer trace;
+        private final double errorChance;
+        private final long totalBits;
+
+        TraceModel(Path path) throws IOException {
+            try(FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(ErrorTraceFormat.HEADER_SIZE);
+                while(header.hasRemaining() && file.read(header) >= 0) {
+                    // Skaitoma, kol nuskaitoma visa antraštė arba baigiasi failas.
+                }
+                if(header.position() < ErrorTraceFormat.HEADER_SIZE || header.getInt(0) != ErrorTraceFormat.MAGIC) {
+                    throw new IOException("Failas nėra kanalo klaidų įrašas: " + path);
+                }
+                errorChance = header.getDouble(Integer.BYTES);
+                totalBits = header.getLong(ErrorTraceFormat.TOTAL_BITS_OFFSET);
+                trace = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()); // Atvaizdavimas lieka galioti uždarius failą.
+            }
+            trace.position(ErrorTraceFormat.HEADER_SIZE);
+        }
+
+        /**
+         * Nuskaitomas kitas "varint" tarpas.
+         */
+        @Override
+        public long nextGap() {
+            if(!trace.hasRemaining()) return NO_MORE_ERRORS;
+            long gap = 0;
+            int shift = 0;
+            byte value;
+            do {
+                value = trace.get();
+                gap |= (long) (value & 0x7F) << shift;
+                shift += 7;
+            } while((value & 0x80) != 0);
+            return gap;
+        }
+
+        @Override
+        public double getErrorChance() {
+            return errorChance;
+        }
+
+    }
+
+}
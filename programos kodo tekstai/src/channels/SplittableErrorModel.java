@@ -0,0 +1,20 @@
+package channels;
+
+import java.util.Random;
+
+/**
+ * Klaidų modelis, kurį galima nukopijuoti: toks pat modelis, bet su kitu atsitiktinių skaičių generatoriumi.
+ * Tokį modelį naudojantį kanalą galima padalyti į nepriklausomus kanalus, kai kelios gijos siunčia duomenis savais
+ * kanalais. Atkuriamo įrašo modelis šios sąsajos neįgyvendina, nes jo klaidų seka tik viena.
+ */
+public interface SplittableErrorModel extends ErrorModel {
+
+    /**
+     * Sukuriamas toks pats modelis (tais pačiais parametrais, pradinėje būsenoje), bet su kitu atsitiktinių skaičių
+     * generatoriumi.
+     * @param random    naujojo modelio atsitiktinių skaičių generatorius.
+     * @return          grąžina naują modelį.
+     */
+    SplittableErrorModel copy(Random random);
+
+}
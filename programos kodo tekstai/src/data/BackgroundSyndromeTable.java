@@ -0,0 +1,92 @@
+package data;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Sindromų lentelė, sudaroma fone. Sudarymas pradedamas iš karto, kai žinomi kodo parametrai, todėl jis vyksta tuo
+ * metu, kai vartotojas renkasi scenarijų ir įvedinėja tekstą ar paveiksliuko kelią. Lentelės laukiama tik tada,
+ * kai jos prireikia pirmą kartą dekoduojant.
+ */
+public class BackgroundSyndromeTable implements SyndromeLeaderTable {
+
+    private static final long PROGRESS_PRINT_INTERVAL = 1000; // Kas kiek milisekundžių spausdinama laukimo eiga.
+
+    private final BuildProgress progress = new BuildProgress();
+    private final ExecutorService executor;
+    private final Future<SyndromeLeaderTable> future;
+    private volatile SyndromeLeaderTable table;
+
+    /**
+     * @param builder   funkcija, kuri sudaro lentelę, pranešdama eigą paduotam "BuildProgress" objektui
+     *                  (pvz. progress -> new CodeContext(codeData, maxWeight, progress)).
+     */
+    public BackgroundSyndromeTable(Function<BuildProgress, SyndromeLeaderTable> builder) {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "syndrome-table-builder");
+            thread.setDaemon(true); // Programa neturi laukti sudarymo, jeigu baigia darbą anksčiau.
+            return thread;
+        });
+        future = executor.submit(() -> builder.apply(progress));
+        executor.shutdown();
+    }
+
+    @Override
+    public int getLeaderWeight(int[] vector) {
+        SyndromeLeaderTable ready = table;
+        if(ready == null) ready = await();
+        return ready.getLeaderWeight(vector);
+    }
+
+    /**
+     * Laukiama, kol lentelė bus sudaryta. Kol laukiama, kas sekundę spausdinama sudarymo eiga.
+     * @return      grąžina sudarytą lentelę.
+     * @throws CancellationException    jeigu sudarymas buvo atšauktas.
+     */
+    public synchronized SyndromeLeaderTable await() {
+        if(table != null) return table;
+        boolean reported = false;
+        while(true) {
+            try {
+                table = future.get(PROGRESS_PRINT_INTERVAL, TimeUnit.MILLISECONDS);
+                if(reported) System.out.println("Sindromų lentelė sudaryta.");
+                return table;
+            } catch(TimeoutException e) {
+                System.out.printf("Laukiama, kol bus sudaryta sindromų lentelė: %.1f%%.%n", progress.getFraction() * 100);
+                reported = true;
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Laukimas nutrauktas.");
+            } catch(ExecutionException e) {
+                if(e.getCause() instanceof CancellationException) throw (CancellationException) e.getCause();
+                throw new IllegalStateException("Nepavyko sudaryti sindromų lentelės.", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Atšaukiamas sudarymas (pvz. jeigu programa baigia darbą taip ir nepanaudojusi lentelės).
+     */
+    public void cancel() {
+        progress.cancel();
+        future.cancel(false);
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return      grąžina atliktą sudarymo darbo dalį (nuo 0 iki 1).
+     */
+    public double getProgress() {
+        return progress.getFraction();
+    }
+
+}
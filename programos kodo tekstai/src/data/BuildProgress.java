@@ -0,0 +1,47 @@
+package data;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sindromų lentelės sudarymo eiga. Lentelė, ją sudarydama, praneša, kiek žingsnių jau atlikta, o kita gija
+ * gali eigą stebėti arba sudarymą atšaukti.
+ */
+public class BuildProgress {
+
+    private final AtomicLong doneSteps = new AtomicLong();
+    private volatile long totalSteps = 1;
+    private volatile boolean cancelled;
+
+    /**
+     * Nustatomas bendras žingsnių skaičius (lentelė jį nustato prieš pradėdama sudarymą).
+     */
+    void setTotalSteps(long totalSteps) {
+        this.totalSteps = Math.max(1, totalSteps);
+    }
+
+    /**
+     * Pranešama apie atliktus žingsnius. Jeigu sudarymas atšauktas, metama išimtis, kuri nutraukia sudarymą.
+     * @param steps     nuo paskutinio pranešimo atliktų žingsnių skaičius.
+     */
+    void advance(long steps) {
+        doneSteps.addAndGet(steps);
+        if(cancelled) throw new CancellationException("Sindromų lentelės sudarymas atšauktas.");
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return      grąžina atliktą darbo dalį (nuo 0 iki 1).
+     */
+    public double getFraction() {
+        return Math.min(1.0, (double) doneSteps.get() / totalSteps);
+    }
+
+}
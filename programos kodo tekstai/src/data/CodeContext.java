@@ -0,0 +1,215 @@
+package data;
+
+import metrics.Metrics;
+import metrics.SyndromeTableBuildEvent;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nekeičiamas kodo kontekstas: viskas, ko reikia koduoti ir dekoduoti, apskaičiuojama vieną kartą sukuriant objektą
+ * ir po to tik skaitoma, todėl vieną kontekstą be kopijavimo ir be užraktų gali naudoti bet kiek gijų vienu metu.
+ * Apskaičiuojama: supakuotos generuojančios matricos eilutės, supakuoti kontrolinės matricos stulpeliai, dalių
+ * lentelės (kiekvienai 8 informacinių bitų daliai - visų 256 reikšmių kontrolinių bitų XOR) ir sindromų lentelė.
+ * Kai n-k ne didesnis nei 24, sindromų lentelė pilna (masyvas, indeksuojamas sindromu, užima 2^(n-k) baitų, t.y.
+ * ne daugiau nei 16 MB): lyderių svoriai randami paieška platyn nuo nulinio sindromo, todėl reikia 2^(n-k), o ne
+ * 2^n žingsnių. Didesnei pilnai lentelei neužtektų atminties (n-k = 32 - jau 4 GB), o jos sudarymas truktų
+ * dešimtis minučių. Kitaip naudojama ribota lentelė ("SparseSyndromeTable"). Supakuoti sindromai ir
+ * kontroliniai bitai laikomi "long", todėl n-k negali viršyti 64.
+ */
+public final class CodeContext implements SyndromeLeaderTable {
+
+    public static final int DENSE_MAX_REDUNDANCY = 24; // Iki kokio n-k sudaroma pilna sindromų lentelė.
+    private static final int CHUNK_BITS = 8; // Kiek informacinių bitų apima viena dalių lentelė.
+    private static final int PROGRESS_MASK = (1 << 20) - 1; // Eiga pranešama kas 2^20 peržiūrėtų sindromų.
+    private static final LongAdder ENCODED_WORDS = Metrics.counter(Metrics.WORDS_ENCODED);
+
+    private final CodeData codeData;
+    private final int k;
+    private final int n;
+    private final long[] packedGeneratorRows; // null, kai n > 64.
+    private final long[] packedParityColumns;
+    private final long[][] chunkParity; // [dalis][dalies reikšmė] -> kontroliniai bitai.
+    private final byte[] leaderWeights; // Pilna lentelė (sindromas -> lyderio svoris) arba null.
+    private final SparseSyndromeTable sparseTable; // Ribota lentelė arba null.
+
+    /**
+     * @param codeData      kodo parametrai (n-k ne didesnis nei 64).
+     * @param maxWeight     ribotos sindromų lentelės didžiausias klaidų svoris (naudojamas tik kai n-k > 24).
+     */
+    public CodeContext(CodeData codeData, int maxWeight) {
+        this(codeData, maxWeight, new BuildProgress());
+    }
+
+    /**
+     * @param codeData      kodo parametrai (n-k ne didesnis nei 64).
+     * @param maxWeight     ribotos sindromų lentelės didžiausias klaidų svoris (naudojamas tik kai n-k > 24).
+     * @param progress      čia pranešama sindromų lentelės sudarymo eiga (per ją sudarymą galima ir atšaukti).
+     */
+    public CodeContext(CodeData codeData, int maxWeight, BuildProgress progress) {
+        int redundancy = codeData.getN() - codeData.getK();
+        if(redundancy > Long.SIZE) {
+            throw new IllegalArgumentException("Kodo kontekstas galimas tik kai n-k <= " + Long.SIZE + ".");
+        }
+        this.codeData = codeData;
+        k = codeData.getK();
+        n = codeData.getN();
+        packedGeneratorRows = n <= Long.SIZE ? codeData.getPackedGeneratorRows() : null;
+        packedParityColumns = new long[n];
+        for(int i = 0; i < n; i++) packedParityColumns[i] = codeData.getPackedParityColumn(i);
+        chunkParity = buildChunkParity();
+        if(redundancy <= DENSE_MAX_REDUNDANCY) {
+            SyndromeTableBuildEvent event = new SyndromeTableBuildEvent();
+            event.begin();
+            long start = System.nanoTime();
+            leaderWeights = buildLeaderWeights(redundancy, progress);
+            Metrics.histogram(Metrics.TABLE_BUILD_NANOS).record(System.nanoTime() - start);
+            event.k = k;
+            event.n = n;
+            event.maxWeight = n;
+            event.entries = 1L << redundancy;
+            event.commit();
+            sparseTable = null;
+        }
+        else {
+            leaderWeights = null;
+            sparseTable = new SparseSyndromeTable(codeData, maxWeight, progress);
+        }
+    }
+
+    /**
+     * Kiekvienai dalies reikšmei kontroliniai bitai apskaičiuojami iš jau apskaičiuotos reikšmės be aukščiausio
+     * vieneto, todėl vienai daliai reikia 256 XOR operacijų.
+     */
+    private long[][] buildChunkParity() {
+        long[][] tables = new long[(k + CHUNK_BITS - 1) / CHUNK_BITS][1 << CHUNK_BITS];
+        for(int chunk = 0; chunk < tables.length; chunk++) {
+            for(int value = 1; value < 1 << CHUNK_BITS; value++) {
+                int bit = Integer.numberOfTrailingZeros(value); // value bitas j atitinka žinutės bitą chunk*8+j.
+                int row = chunk * CHUNK_BITS + bit;
+                long parity = row < k ? packedParityColumns[row] : 0;
+                tables[chunk][value] = tables[chunk][value & (value - 1)] ^ parity;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Paieška platyn sluoksniais: sindromas, pasiekiamas iš svorio w sindromo pridėjus vieną stulpelį, turi lyderį,
+     * kurio svoris ne didesnis nei w + 1. Eilės nereikia - kiekviename sluoksnyje peržiūrima visa lentelė ir
+     * plečiami tik svorio w sindromai, todėl papildomos atminties nenaudojama. Kadangi tarp stulpelių yra vienetinė
+     * dalis, pasiekiami visi sindromai.
+     */
+    private byte[] buildLeaderWeights(int redundancy, BuildProgress progress) {
+        int size = 1 << redundancy;
+        byte[] weights = new byte[size];
+        Arrays.fill(weights, (byte) -1);
+        weights[0] = 0;
+        progress.setTotalSteps(size);
+        int found = 1;
+        int reported = 0;
+        for(int weight = 0; found < size; weight++) {
+            for(int syndrome = 0; syndrome < size; syndrome++) {
+                if(weights[syndrome] == weight) {
+                    for(long column : packedParityColumns) {
+                        int next = syndrome ^ (int) column;
+                        if(weights[next] < 0) {
+                            weights[next] = (byte) (weight + 1);
+                            found++;
+                        }
+                    }
+                }
+                if((syndrome & PROGRESS_MASK) == PROGRESS_MASK) { // Eiga pranešama retai, kad nelėtintų.
+                    progress.advance(found - reported);
+                    reported = found;
+                }
+            }
+        }
+        progress.advance(found - reported);
+        return weights;
+    }
+
+    /**
+     * Žinutė užkoduojama naudojant dalių lenteles: kontroliniai bitai - kiekvienos 8 bitų dalies lentelės įrašų XOR.
+     * @param message   k ilgio žinutė.
+     * @return          grąžina naują n ilgio kodo žodį.
+     */
+    public int[] encode(int[] message) {
+        ENCODED_WORDS.increment();
+        int[] code = new int[n];
+        System.arraycopy(message, 0, code, 0, k);
+        long parity = calculateParity(message);
+        for(int i = 0; i < n - k; i++) code[k + i] = (int) (parity >>> i) & 1;
+        return code;
+    }
+
+    /**
+     * @param vector    vektorius, kurio pirmieji k bitai laikomi žinute.
+     * @return          grąžina supakuotus žinutės kontrolinius bitus (i-tasis bitas - i-tasis kontrolinis bitas).
+     */
+    public long calculateParity(int[] vector) {
+        long parity = 0;
+        for(int chunk = 0, start = 0; start < k; chunk++, start += CHUNK_BITS) {
+            int end = Math.min(start + CHUNK_BITS, k);
+            int value = 0;
+            for(int i = end - 1; i >= start; i--) value = (value << 1) | vector[i];
+            parity ^= chunkParity[chunk][value];
+        }
+        return parity;
+    }
+
+    /**
+     * Sindromas lygus žinutės kontrolinių bitų ir gautų kontrolinių bitų sumai (XOR).
+     * @param vector    n ilgio vektorius.
+     * @return          grąžina supakuotą sindromą.
+     */
+    public long calculatePackedSyndrome(int[] vector) {
+        long syndrome = calculateParity(vector);
+        for(int i = 0; i < n - k; i++) syndrome ^= (long) vector[k + i] << i;
+        return syndrome;
+    }
+
+    @Override
+    public int getLeaderWeight(int[] vector) {
+        return getLeaderWeight(calculatePackedSyndrome(vector));
+    }
+
+    /**
+     * @param syndrome  supakuotas sindromas.
+     * @return          grąžina sindromo lyderio svorį arba UNKNOWN_WEIGHT, jeigu sindromo ribotoje lentelėje nėra.
+     */
+    public int getLeaderWeight(long syndrome) {
+        if(leaderWeights != null) return leaderWeights[(int) syndrome];
+        return sparseTable.getLeaderWeight(syndrome);
+    }
+
+    /**
+     * @param position  pozicija vektoriuje (nuo 0).
+     * @return          grąžina pozicijos kontrolinės matricos stulpelį (supakuotą sindromą).
+     */
+    public long getPackedParityColumn(int position) {
+        return packedParityColumns[position];
+    }
+
+    /**
+     * @return      grąžina supakuotų generuojančios matricos eilučių kopiją (tik kai n <= 64).
+     */
+    public long[] getPackedGeneratorRows() {
+        if(packedGeneratorRows == null) {
+            throw new IllegalStateException("Supakuotos generuojančios matricos eilutės galimos tik kai n <= " + Long.SIZE + ".");
+        }
+        return packedGeneratorRows.clone();
+    }
+
+    public CodeData getCodeData() {
+        return codeData;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+}
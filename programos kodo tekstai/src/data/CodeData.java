@@ -1,26 +1,58 @@
 package data;
 
 import utils.CodeMath;
+import java.util.Arrays;
 
 /**
  * Klasėje laikomi pradiniai vartotojo įvesti ir pagal juos apskaičiuoti kodavimui reikalingi duomenys.
+ * Objektas nekeičiamas (matrica nukopijuojama ir atiduodama tik kopija), todėl jį vienu metu gali naudoti kelios gijos.
+ * Matrica laikoma retuoju pavidalu (kiekvienai eilutei - vienetų stulpeliai), todėl atmintis priklauso nuo vienetų
+ * skaičiaus, o ne nuo k * (n-k): retiems ilgiems kodams (pvz., n = 10000, 3 vienetai eilutėje) pilna matrica netelpa.
  */
 
 public class CodeData {
 
     private final int k; // dimensija.
     private final int n; // kodo ilgis.
-    private final int[][] matrix; // generuojanti matrica be vienetinės matricos dalies (joje tik k eilučių ir n-k stulpelių).
-    private final int[][] parityMatrix; //kontrolinė matrica be vienetinės dalies (n-k eilučių, k stulpelių).
-    // Kitaip tariant, tai generuojančios matricos be vienetinės dalies transponuota matrica.
+    private final int[][] rows; // generuojanti matrica be vienetinės dalies: kiekvienai iš k eilučių - vienetų stulpeliai.
+    // Kontrolinė matrica be vienetinės dalies - tai ta pati matrica, transponuota, todėl atskirai nelaikoma.
     private final double errorChance;
+    private final long[] packedParityColumns; // Kiekvieno kontrolinės matricos stulpelio sindromas, supakuotas į "long".
 
+    /**
+     * @param matrix    generuojanti matrica be vienetinės dalies (k eilučių, n-k stulpelių).
+     */
     public CodeData(int k, int n, int[][] matrix, double errorChance) {
+        this(CodeMath.sparseRows(matrix), k, n, errorChance);
+    }
+
+    private CodeData(int[][] rows, int k, int n, double errorChance) {
         this.k = k;
         this.n = n;
-        this.matrix = matrix;
+        this.rows = rows;
         this.errorChance = errorChance;
-        parityMatrix = CodeMath.transpose(matrix, k, n-k); // Kadangi nėra vienetinės dalies, užtenka transponuoti.
+        packedParityColumns = (n-k) <= Long.SIZE ? packParityColumns() : null;
+    }
+
+    /**
+     * Kodas sudaromas iš retojo matricos pavidalo (pilna matrica nesudaroma).
+     * @param rows      kiekvienai generuojančios matricos (be vienetinės dalies) eilutei - stulpeliai, kuriuose yra
+     *                  vienetai (nuo 0 iki n-k-1, be pasikartojimų).
+     * @return          grąžina kodo duomenis.
+     */
+    public static CodeData fromSparseRows(int k, int n, int[][] rows, double errorChance) {
+        if(rows.length != k) throw new IllegalArgumentException("Matricoje turi būti " + k + " eilučių.");
+        int[][] sorted = new int[k][];
+        for(int i = 0; i < k; i++) {
+            sorted[i] = rows[i].clone();
+            Arrays.sort(sorted[i]);
+            for(int j = 0; j < sorted[i].length; j++) {
+                if(sorted[i][j] < 0 || sorted[i][j] >= n - k || (j > 0 && sorted[i][j] == sorted[i][j - 1])) {
+                    throw new IllegalArgumentException("Netinkamas " + (i + 1) + " matricos eilutės stulpelis.");
+                }
+            }
+        }
+        return new CodeData(sorted, k, n, errorChance);
     }
 
     public int getN() {
@@ -31,29 +63,94 @@ public class CodeData {
         return k;
     }
 
+    /**
+     * Pilna matrica sudaroma iš naujo, todėl ilgiems kodams jos geriau neprašyti.
+     * @return      grąžina generuojančios matricos (be vienetinės dalies) kopiją.
+     */
     public int[][] getMatrix() {
+        int[][] matrix = new int[k][n-k];
+        for(int i = 0; i < k; i++) {
+            for(int column : rows[i]) matrix[i][column] = 1;
+        }
         return matrix;
     }
 
+    /**
+     * @param row   generuojančios matricos eilutė (nuo 0).
+     * @return      grąžina eilutės (be vienetinės dalies) vienetų stulpelius didėjimo tvarka (masyvas nekopijuojamas,
+     *              todėl pasiekiamas tik šiame pakete).
+     */
+    int[] getRowColumns(int row) {
+        return rows[row];
+    }
+
+    /**
+     * Žinutė užkoduojama šio kodo generuojančia matrica (matrica nekopijuojama).
+     * @param message   k ilgio žinutė.
+     * @return          grąžina n ilgio kodo žodį.
+     */
+    public int[] encode(int[] message) {
+        return CodeMath.encodeVector(message, rows, k, n);
+    }
+
     public double getErrorChance() {
         return errorChance;
     }
 
     /**
-     * Klasėje laikoma kontrolinė matrica privati, todėl sindromas apskaičiuojamas klasės viduje šiame metode.
+     * Sindromas apskaičiuojamas kaip "long" tipo skaičius: i-tasis sindromo bitas yra i-tasis skaičiaus bitas.
+     * Vektoriaus sindromas lygus stulpelių, kurių pozicijose vektoriuje yra vienetai, sindromų sumai (XOR).
      * @param vector    vektorius, kurio sindromą norime apskaičiuoti.
-     * @return          grąžinamas paduoto vektoriaus sindromas.
+     * @return          grąžinamas supakuotas sindromas.
      */
-    public int[] calculateSyndrome(int[] vector) {
-        int[] syndrome = new int[n-k];
-        for(int i = 0; i < (n-k); i++) {
-            for(int r = 0; r < k; r++) {
-                syndrome[i] += (parityMatrix[i][r] * vector[r]); // Transpoziciją atlieku tiesiog čia ir dabar.
-            }
-            syndrome[i] += vector[k + i]; // vienetinės dalies pasirodymas.
-            syndrome[i] %= 2; // Mūsų kūnas yra dvejetainis.
+    public long calculatePackedSyndrome(int[] vector) {
+        if(packedParityColumns == null) {
+            throw new IllegalStateException("Supakuotas sindromas galimas tik kai n-k <= " + Long.SIZE + ".");
+        }
+        long syndrome = 0;
+        for(int i = 0; i < n; i++) {
+            if(vector[i] != 0) syndrome ^= packedParityColumns[i];
         }
         return syndrome;
     }
 
+    /**
+     * @param position  pozicija vektoriuje (nuo 0).
+     * @return          grąžina vektoriaus, turinčio vienetą tik nurodytoje pozicijoje, supakuotą sindromą.
+     */
+    public long getPackedParityColumn(int position) {
+        return packedParityColumns[position];
+    }
+
+    /**
+     * Generuojančios matricos eilutės (kartu su vienetine dalimi), supakuotos į "long": j-tasis eilutės elementas yra
+     * j-tasis skaičiaus bitas. Tinka tik tada, kai n neviršija 64.
+     * @return      grąžina naują k ilgio supakuotų eilučių masyvą.
+     */
+    public long[] getPackedGeneratorRows() {
+        if(n > Long.SIZE) {
+            throw new IllegalArgumentException("Supakuotos generuojančios matricos eilutės galimos tik kai n <= " + Long.SIZE + ".");
+        }
+        long[] packed = new long[k];
+        for(int i = 0; i < k; i++) {
+            packed[i] = 1L << i; // Vienetinė dalis.
+            for(int column : rows[i]) packed[i] |= 1L << (k + column);
+        }
+        return packed;
+    }
+
+    /**
+     * Pirmieji k stulpeliai paimami iš kontrolinės matricos, likę n-k sudaro vienetinę dalį.
+     */
+    private long[] packParityColumns() {
+        long[] columns = new long[n];
+        for(int r = 0; r < k; r++) {
+            for(int i : rows[r]) columns[r] |= 1L << i;
+        }
+        for(int i = 0; i < (n-k); i++) {
+            columns[k + i] = 1L << i;
+        }
+        return columns;
+    }
+
 }
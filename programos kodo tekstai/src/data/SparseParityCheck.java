@@ -0,0 +1,114 @@
+package data;
+
+/**
+ * Retoji kontrolinės matricos H = [A^T | I] forma: saugomi tik vienetų indeksai, todėl atmintis priklauso nuo
+ * vienetų skaičiaus, o ne nuo 2^(n-k). Eilutės saugomos CSR pavidalu (kiekvienam patikrinimui - jame
+ * dalyvaujančios pozicijos), stulpeliai - CSC pavidalu (kiekvienai pozicijai - patikrinimai, kuriuose ji dalyvauja).
+ */
+public class SparseParityCheck {
+
+    private final int n;
+    private final int checks; // n-k.
+    private final int[] rowStart; // i-tojo patikrinimo pozicijos yra rowPositions[rowStart[i]..rowStart[i+1]).
+    private final int[] rowPositions;
+    private final int[] columnStart; // j-tosios pozicijos patikrinimai yra columnChecks[columnStart[j]..columnStart[j+1]).
+    private final int[] columnChecks;
+
+    /**
+     * Sudaroma iš kodo retojo matricos pavidalo, todėl pilna matrica niekur nesudaroma.
+     */
+    public SparseParityCheck(CodeData codeData) {
+        int k = codeData.getK();
+        n = codeData.getN();
+        checks = n - k;
+        rowStart = new int[checks + 1];
+        columnStart = new int[n + 1];
+        for(int r = 0; r < k; r++) {
+            for(int i : codeData.getRowColumns(r)) {
+                rowStart[i + 1]++;
+                columnStart[r + 1]++;
+            }
+        }
+        for(int i = 0; i < checks; i++) {
+            rowStart[i + 1]++; // Vienetinės dalies vienetas.
+            columnStart[k + i + 1]++;
+        }
+        for(int i = 0; i < checks; i++) rowStart[i + 1] += rowStart[i];
+        for(int j = 0; j < n; j++) columnStart[j + 1] += columnStart[j];
+        rowPositions = new int[rowStart[checks]];
+        columnChecks = new int[columnStart[n]];
+        int[] rowFill = new int[checks];
+        int[] columnFill = new int[n];
+        for(int r = 0; r < k; r++) { // Pozicijos eilutėse ir patikrinimai stulpeliuose - didėjimo tvarka.
+            for(int i : codeData.getRowColumns(r)) {
+                rowPositions[rowStart[i] + rowFill[i]++] = r;
+                columnChecks[columnStart[r] + columnFill[r]++] = i;
+            }
+        }
+        for(int i = 0; i < checks; i++) {
+            rowPositions[rowStart[i] + rowFill[i]++] = k + i;
+            columnChecks[columnStart[k + i] + columnFill[k + i]++] = i;
+        }
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getCheckCount() {
+        return checks;
+    }
+
+    /**
+     * @return      grąžina vienetų skaičių kontrolinėje matricoje.
+     */
+    public int getNonZeroCount() {
+        return rowPositions.length;
+    }
+
+    public int getRowStart(int check) {
+        return rowStart[check];
+    }
+
+    public int getRowEnd(int check) {
+        return rowStart[check + 1];
+    }
+
+    public int getRowPosition(int index) {
+        return rowPositions[index];
+    }
+
+    public int getColumnStart(int position) {
+        return columnStart[position];
+    }
+
+    public int getColumnEnd(int position) {
+        return columnStart[position + 1];
+    }
+
+    public int getColumnCheck(int index) {
+        return columnChecks[index];
+    }
+
+    /**
+     * @return      grąžina, keliuose patikrinimuose dalyvauja pozicija.
+     */
+    public int getColumnWeight(int position) {
+        return columnStart[position + 1] - columnStart[position];
+    }
+
+    /**
+     * @param vector    vektorius, kurio sindromą norime apskaičiuoti.
+     * @return          grąžina sindromą (i-tasis elementas - i-tojo patikrinimo rezultatas).
+     */
+    public int[] calculateSyndrome(int[] vector) {
+        int[] syndrome = new int[checks];
+        for(int i = 0; i < checks; i++) {
+            int sum = 0;
+            for(int index = rowStart[i]; index < rowStart[i + 1]; index++) sum ^= vector[rowPositions[index]];
+            syndrome[i] = sum;
+        }
+        return syndrome;
+    }
+
+}
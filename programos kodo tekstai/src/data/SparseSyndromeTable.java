@@ -0,0 +1,121 @@
+package data;
+
+import metrics.Metrics;
+import metrics.SyndromeTableBuildEvent;
+import utils.LongIntHashMap;
+
+/**
+ * Ribota sindromų lentelė ilgiems kodams, kai n-k didelis ir pilnos 2^(n-k) dydžio lentelės sudaryti neįmanoma.
+ * Į lentelę įtraukiami tik klaidų vektoriai, kurių svoris ne didesnis nei t, todėl lentelės dydis lygus
+ * C(n,0) + C(n,1) + ... + C(n,t), o ne 2^(n-k). Sindromai saugomi supakuoti į "long", todėl n-k negali viršyti 64.
+ * Jeigu sindromo lentelėje nėra, vadinasi, padaryta daugiau nei t klaidų ir dekoduoti nepavyks.
+ */
+public class SparseSyndromeTable implements SyndromeLeaderTable {
+
+    private static final int PROGRESS_STEP = 1 << 14; // Kas kiek sugeneruotų vektorių pranešama apie eigą.
+
+    private final CodeData codeData;
+    private final int maxWeight; // Didžiausias į lentelę įtraukiamų klaidų vektorių svoris (t).
+    private final LongIntHashMap syndromeLeaderMapping;
+    private final BuildProgress progress;
+    private long unreportedSteps; // Žingsniai, apie kuriuos dar nepranešta eigai.
+
+    public SparseSyndromeTable(CodeData codeData, int maxWeight) {
+        this(codeData, maxWeight, new BuildProgress());
+    }
+
+    public SparseSyndromeTable(CodeData codeData, int maxWeight, BuildProgress progress) {
+        if(codeData.getN() - codeData.getK() > Long.SIZE) {
+            throw new IllegalArgumentException("Ribota sindromų lentelė galima tik kai n-k <= " + Long.SIZE + ".");
+        }
+        if(maxWeight < 0) {
+            throw new IllegalArgumentException("Klaidų vektorių svoris t negali būti neigiamas: " + maxWeight);
+        }
+        this.codeData = codeData;
+        this.maxWeight = maxWeight;
+        this.progress = progress;
+        long patterns = countPatterns(codeData.getN(), maxWeight);
+        syndromeLeaderMapping = new LongIntHashMap((int) Math.min(patterns, 1 << 22));
+        progress.setTotalSteps(patterns);
+        SyndromeTableBuildEvent event = new SyndromeTableBuildEvent();
+        event.begin();
+        long start = System.nanoTime();
+        generateMap();
+        progress.advance(unreportedSteps);
+        Metrics.histogram(Metrics.TABLE_BUILD_NANOS).record(System.nanoTime() - start);
+        event.k = codeData.getK();
+        event.n = codeData.getN();
+        event.maxWeight = maxWeight;
+        event.entries = syndromeLeaderMapping.size();
+        event.commit();
+    }
+
+    /**
+     * Klaidų vektoriai generuojami didėjančio svorio tvarka, todėl pirmasis rastas sindromo lyderis visada yra
+     * mažiausio svorio ir vėliau rastų to paties sindromo vektorių tikrinti nebereikia.
+     */
+    private void generateMap() {
+        for(int weight = 0; weight <= maxWeight; weight++) {
+            continueMapping(0, weight, weight, 0L);
+        }
+    }
+
+    /**
+     * Rekursyviai parenkamos vienetų pozicijos. Sindromas skaičiuojamas ne iš naujo, o pridedant (XOR)
+     * naujai pasirinktos pozicijos stulpelio sindromą.
+     * @param position      nuo kurios pozicijos galima dėti kitą vienetą.
+     * @param remaining     kiek vienetų dar reikia padėti.
+     * @param weight        generuojamų vektorių svoris.
+     * @param syndrome      jau padėtų vienetų sindromas.
+     */
+    private void continueMapping(int position, int remaining, int weight, long syndrome) {
+        if(remaining == 0) {
+            syndromeLeaderMapping.putIfAbsent(syndrome, weight);
+            if(++unreportedSteps == PROGRESS_STEP) {
+                progress.advance(unreportedSteps);
+                unreportedSteps = 0;
+            }
+            return;
+        }
+        for(int i = position; i <= codeData.getN() - remaining; i++) {
+            continueMapping(i + 1, remaining - 1, weight, syndrome ^ codeData.getPackedParityColumn(i));
+        }
+    }
+
+    /**
+     * Apskaičiuojamas, kiek daugiausiai įrašų gali būti lentelėje (lentelės talpai parinkti).
+     */
+    private static long countPatterns(int n, int maxWeight) {
+        long total = 0;
+        long combinations = 1; // C(n, 0).
+        for(int w = 0; w <= Math.min(maxWeight, n); w++) {
+            total += combinations;
+            if(total >= Integer.MAX_VALUE) return Integer.MAX_VALUE;
+            combinations = combinations * (n - w) / (w + 1);
+        }
+        return total;
+    }
+
+    @Override
+    public int getLeaderWeight(int[] vector) {
+        return getLeaderWeight(codeData.calculatePackedSyndrome(vector));
+    }
+
+    /**
+     * @param syndrome  supakuotas sindromas.
+     * @return          grąžina sindromo lyderio svorį arba UNKNOWN_WEIGHT, jeigu sindromo lentelėje nėra.
+     */
+    public int getLeaderWeight(long syndrome) {
+        int weight = syndromeLeaderMapping.get(syndrome);
+        return weight == LongIntHashMap.NO_VALUE ? UNKNOWN_WEIGHT : weight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    public int size() {
+        return syndromeLeaderMapping.size();
+    }
+
+}
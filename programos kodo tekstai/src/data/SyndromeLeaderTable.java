@@ -0,0 +1,16 @@
+package data;
+
+/**
+ * Sindromų lentelė, pagal kurią dekoduojant sužinomas sindromo lyderio (mažiausio svorio klaidos vektoriaus) svoris.
+ */
+public interface SyndromeLeaderTable {
+
+    int UNKNOWN_WEIGHT = -1; // Sindromo lentelėje nėra (pvz. ribotoje lentelėje lyderio svoris didesnis nei t).
+
+    /**
+     * @param vector    vektorius, kurio sindromo lyderio svorio ieškome.
+     * @return          grąžina sindromo lyderio svorį arba UNKNOWN_WEIGHT, jeigu sindromo lentelėje nėra.
+     */
+    int getLeaderWeight(int[] vector);
+
+}
@@ -0,0 +1,78 @@
+package decoders;
+
+import data.SparseParityCheck;
+
+/**
+ * Galagerio ("Gallager") bitų keitimo dekoderis ilgiems kodams su reta kontroline matrica. Kiekvienai pozicijai
+ * skaičiuojama, kiek jos patikrinimų netenkinama ir kiek tenkinama. Kiekvieną iteraciją keičiami bitai, kurių
+ * skirtumas (netenkinami minus tenkinami) didžiausias ir teigiamas (jeigu tokio bito įvertis dar nepasikeitė dėl
+ * tą pačią iteraciją pakeisto kaimyno). Pakeitus bitą, sindromas ir skaičiai
+ * atnaujinami tik jo patikrinimuose, o ne perskaičiuojami iš naujo. Dekoduoti nepavyksta, jeigu per nustatytą
+ * iteracijų skaičių nulinis sindromas negaunamas arba nebėra bito, kurį pakeitus būtų geriau.
+ * Geriausiai veikia, kai kiekviena pozicija dalyvauja nedaug patikrinimų (pvz., 3), o patikrinimai nesikerta.
+ */
+public class BitFlippingDecoder implements Decoder {
+
+    public static final int DEFAULT_MAX_ITERATIONS = 50;
+
+    private final SparseParityCheck parityCheck;
+    private final int maxIterations;
+
+    public BitFlippingDecoder(SparseParityCheck parityCheck) {
+        this(parityCheck, DEFAULT_MAX_ITERATIONS);
+    }
+
+    public BitFlippingDecoder(SparseParityCheck parityCheck, int maxIterations) {
+        this.parityCheck = parityCheck;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @param corruptedCode     vektorius, kurį siekiama dekoduoti.
+     * @return                  grąžina dekodavimo rezultatą (išbandytų pozicijų vietoje - pakeistų bitų skaičius).
+     */
+    @Override
+    public DecodeResult decode(int[] corruptedCode) {
+        int n = parityCheck.getN();
+        int[] syndrome = parityCheck.calculateSyndrome(corruptedCode);
+        int unsatisfied = 0;
+        for(int value : syndrome) unsatisfied += value;
+        if(unsatisfied == 0) return new DecodeResult(corruptedCode, true, 0);
+        int[] score = new int[n]; // Netenkinamų minus tenkinamų patikrinimų skaičius.
+        for(int j = 0; j < n; j++) {
+            int count = 0;
+            for(int index = parityCheck.getColumnStart(j); index < parityCheck.getColumnEnd(j); index++) {
+                count += syndrome[parityCheck.getColumnCheck(index)];
+            }
+            score[j] = 2 * count - parityCheck.getColumnWeight(j);
+        }
+        int flips = 0;
+        int[] candidates = new int[n];
+        for(int iteration = 0; iteration < maxIterations && unsatisfied > 0; iteration++) {
+            int best = 0;
+            for(int j = 0; j < n; j++) best = Math.max(best, score[j]);
+            if(best <= 0) break; // Joks pakeitimas nesumažintų netenkinamų patikrinimų skaičiaus.
+            int candidateCount = 0;
+            for(int j = 0; j < n; j++) {
+                if(score[j] == best) candidates[candidateCount++] = j;
+            }
+            for(int c = 0; c < candidateCount; c++) {
+                int position = candidates[c];
+                if(score[position] != best) continue; // Ankstesnis pakeitimas šiai pozicijai jau pakeitė įvertį.
+                corruptedCode[position] ^= 1;
+                flips++;
+                for(int index = parityCheck.getColumnStart(position); index < parityCheck.getColumnEnd(position); index++) {
+                    int check = parityCheck.getColumnCheck(index);
+                    syndrome[check] ^= 1;
+                    unsatisfied += syndrome[check] == 1 ? 1 : -1;
+                    int delta = syndrome[check] == 1 ? 2 : -2;
+                    for(int i = parityCheck.getRowStart(check); i < parityCheck.getRowEnd(check); i++) {
+                        score[parityCheck.getRowPosition(i)] += delta;
+                    }
+                }
+            }
+        }
+        return new DecodeResult(corruptedCode, unsatisfied == 0, flips);
+    }
+
+}
@@ -0,0 +1,121 @@
+package decoders;
+
+import data.CodeData;
+
+/**
+ * Žinomi kodai kartu su jiems skirtais dekoderiais, kuriems sindromų lentelės nereikia: Hamingo
+ * (2^r-1, 2^r-1-r), išplėstiniai Hamingo (2^r, 2^r-1-r) ir Golėjaus (23, 12) bei (24, 12) kodai.
+ * Visų kodų generuojančios matricos standartinio pavidalo [I | A].
+ */
+public class CodePreset {
+
+    public static final int MIN_HAMMING_R = 2;
+    public static final int MAX_HAMMING_R = 16;
+
+    private final String name;
+    private final CodeData codeData;
+    private final Decoder decoder;
+
+    private CodePreset(String name, CodeData codeData, Decoder decoder) {
+        this.name = name;
+        this.codeData = codeData;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Hamingo kodas: A eilutės - visi r ilgio vektoriai, kurių svoris ne mažesnis nei 2 (vieno svorio vektoriai
+     * yra vienetinėje kontrolinės matricos dalyje).
+     */
+    public static CodePreset hamming(int r, double errorChance) {
+        CodeData codeData = new CodeData((1 << r) - 1 - r, (1 << r) - 1, createHammingMatrix(r, false), errorChance);
+        return new CodePreset("Hamingo", codeData, new HammingDecoder(codeData));
+    }
+
+    /**
+     * Išplėstinis Hamingo kodas: prie kiekvienos A eilutės pridedamas bitas, kad kodo žodžių svoris būtų lyginis.
+     */
+    public static CodePreset extendedHamming(int r, double errorChance) {
+        CodeData codeData = new CodeData((1 << r) - 1 - r, 1 << r, createHammingMatrix(r, true), errorChance);
+        return new CodePreset("išplėstinis Hamingo", codeData, new HammingDecoder(codeData));
+    }
+
+    public static CodePreset golay23(double errorChance) {
+        CodeData codeData = new CodeData(GolayDecoder.K, 23, GolayDecoder.createMatrix(GolayDecoder.K - 1), errorChance);
+        return new CodePreset("Golėjaus", codeData, new GolayDecoder(codeData));
+    }
+
+    public static CodePreset golay24(double errorChance) {
+        CodeData codeData = new CodeData(GolayDecoder.K, 24, GolayDecoder.createMatrix(GolayDecoder.K), errorChance);
+        return new CodePreset("išplėstinis Golėjaus", codeData, new GolayDecoder(codeData));
+    }
+
+    /**
+     * Kodas parenkamas pagal aprašą: „hamming r“, „ehamming r“, „golay23“ arba „golay24“ (vietoje tarpo
+     * galima rašyti dvitaškį).
+     * @param description   kodo aprašas.
+     * @param errorChance   kanalo klaidos tikimybė.
+     * @return              grąžina kodą.
+     * @throws IllegalArgumentException     jeigu tokio kodo nėra.
+     */
+    public static CodePreset parse(String description, double errorChance) {
+        String[] parts = split(description);
+        if(parts[0].equals("golay23")) return golay23(errorChance);
+        if(parts[0].equals("golay24")) return golay24(errorChance);
+        int r = Integer.parseInt(parts[1]);
+        return parts[0].equals("hamming") ? hamming(r, errorChance) : extendedHamming(r, errorChance);
+    }
+
+    /**
+     * Patikrinama, ar aprašytas kodas yra (kodas nesudaromas).
+     * @throws IllegalArgumentException     jeigu tokio kodo nėra.
+     */
+    public static void validate(String description) {
+        split(description);
+    }
+
+    private static String[] split(String description) {
+        String[] parts = description.trim().toLowerCase().split("[\\s:]+");
+        if(parts.length == 1 && (parts[0].equals("golay23") || parts[0].equals("golay24"))) return parts;
+        if(parts.length == 2 && (parts[0].equals("hamming") || parts[0].equals("ehamming"))) {
+            int r;
+            try {
+                r = Integer.parseInt(parts[1]);
+            } catch(NumberFormatException e) {
+                r = -1;
+            }
+            if(r < MIN_HAMMING_R || r > MAX_HAMMING_R) {
+                throw new IllegalArgumentException("Hamingo kodo r turi būti nuo " + MIN_HAMMING_R + " iki " +
+                        MAX_HAMMING_R + ".");
+            }
+            return parts;
+        }
+        throw new IllegalArgumentException("Nežinomas kodas: " + description);
+    }
+
+    private static int[][] createHammingMatrix(int r, boolean extended) {
+        int[][] matrix = new int[(1 << r) - 1 - r][extended ? r + 1 : r];
+        int row = 0;
+        for(int value = 1; value < (1 << r); value++) {
+            int weight = Integer.bitCount(value);
+            if(weight < 2) continue;
+            for(int i = 0; i < r; i++) matrix[row][i] = (value >>> i) & 1;
+            if(extended) matrix[row][r] = 1 - weight % 2;
+            row++;
+        }
+        return matrix;
+    }
+
+    public CodeData getCodeData() {
+        return codeData;
+    }
+
+    public Decoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public String toString() {
+        return name + " kodas (" + codeData.getN() + ", " + codeData.getK() + ")";
+    }
+
+}
@@ -0,0 +1,35 @@
+package decoders;
+
+/**
+ * Vieno vektoriaus dekodavimo rezultatas: dekoduotas vektorius, ar dekodavimas pavyko,
+ * ir kiek pozicijų dekoduojant buvo išbandyta.
+ */
+public class DecodeResult {
+
+    private final int[] decoded;
+    private final boolean success;
+    private final int triedPositions;
+
+    public DecodeResult(int[] decoded, boolean success, int triedPositions) {
+        this.decoded = decoded;
+        this.success = success;
+        this.triedPositions = triedPositions;
+    }
+
+    /**
+     * @return      grąžina dekoduotą vektorių. Jeigu dekoduoti nepavyko, grąžinamas vektorius tokios būsenos,
+     *              kokios buvo nutraukus dekodavimą (jame gali būti dalis ištaisytų klaidų).
+     */
+    public int[] getDecoded() {
+        return decoded;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public int getTriedPositions() {
+        return triedPositions;
+    }
+
+}
@@ -0,0 +1,75 @@
+package decoders;
+
+/**
+ * Kaupiama dekodavimo statistika: kiek vektorių dekoduota, kiek kartų nepavyko ir kiek pozicijų išbandyta.
+ * Pagal ją galima matyti, kaip dekodavimo kaina priklauso nuo kanalo klaidos tikimybės.
+ * Klasė nėra skirta naudoti keliose gijose vienu metu.
+ */
+public class DecodeStatistics {
+
+    private long decodedWords;
+    private long failures;
+    private long triedPositions;
+    private int maxTriedPositions;
+    private long decodeNanos;
+
+    /**
+     * Įtraukiamas vieno vektoriaus dekodavimo rezultatas.
+     * @param result        dekodavimo rezultatas.
+     * @param nanos         dekodavimo trukmė nanosekundėmis.
+     */
+    public void add(DecodeResult result, long nanos) {
+        decodedWords++;
+        if(!result.isSuccess()) failures++;
+        triedPositions += result.getTriedPositions();
+        maxTriedPositions = Math.max(maxTriedPositions, result.getTriedPositions());
+        decodeNanos += nanos;
+    }
+
+    /**
+     * Prijungiama kitur (pvz., kitoje gijoje) sukaupta statistika.
+     * @param other     prijungiama statistika.
+     */
+    public void add(DecodeStatistics other) {
+        decodedWords += other.decodedWords;
+        failures += other.failures;
+        triedPositions += other.triedPositions;
+        maxTriedPositions = Math.max(maxTriedPositions, other.maxTriedPositions);
+        decodeNanos += other.decodeNanos;
+    }
+
+    public long getDecodedWords() {
+        return decodedWords;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getTriedPositions() {
+        return triedPositions;
+    }
+
+    public int getMaxTriedPositions() {
+        return maxTriedPositions;
+    }
+
+    public double getAverageTriedPositions() {
+        return decodedWords == 0 ? 0 : (double) triedPositions / decodedWords;
+    }
+
+    /**
+     * @return      grąžina dekoduotų vektorių skaičių per sekundę.
+     */
+    public double getWordsPerSecond() {
+        return decodeNanos == 0 ? 0 : decodedWords * 1e9 / decodeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Dekoduota vektorių: %d, nepavyko dekoduoti: %d, vidutiniškai išbandyta pozicijų: %.3f " +
+                        "(daugiausiai: %d), dekodavimo sparta: %.0f vektorių per sekundę.",
+                decodedWords, failures, getAverageTriedPositions(), maxTriedPositions, getWordsPerSecond());
+    }
+
+}
@@ -0,0 +1,15 @@
+package decoders;
+
+/**
+ * Iš kanalo gauto vektoriaus dekodavimas. Dekoderis niekada nemeta išimties dėl per didelio klaidų skaičiaus:
+ * nepavykęs dekodavimas grąžinamas kaip rezultatas, kad vienas blogas vektorius nenutrauktų viso siuntimo.
+ */
+public interface Decoder {
+
+    /**
+     * @param corruptedCode     iš kanalo gautas, galimai iškraipytas vektorius (gali būti pakeistas vietoje).
+     * @return                  grąžina dekodavimo rezultatą.
+     */
+    DecodeResult decode(int[] corruptedCode);
+
+}
@@ -0,0 +1,63 @@
+package decoders;
+
+import data.BuildProgress;
+import data.CodeContext;
+import data.CodeData;
+import data.SparseParityCheck;
+
+/**
+ * Bendra dekoderio parinkimo taisyklė, pagal kurią dekoderius sudaro visos programos dalys: kai n-k ne didesnis
+ * nei 24 - pilna sindromų lentelė, kai iki 64 - ribota iki t svorio lentelė (t turi nurodyti vartotojas), o kai
+ * didesnis - bitų keitimo dekoderis su reta kontroline matrica (sindromų lentelės sudaryti neįmanoma).
+ * Lentelės sudaromos kaip kodo kontekstas ("CodeContext"), todėl dekoderis sindromą atnaujina, o ne skaičiuoja iš
+ * naujo, o tą patį dekoderį gali naudoti kelios gijos.
+ */
+public final class DecoderFactory {
+
+    public static final int SPARSE_TABLE_THRESHOLD = CodeContext.DENSE_MAX_REDUNDANCY; // Kai n-k didesnis - ribota lentelė.
+
+    private DecoderFactory() {
+    }
+
+    /**
+     * @return      grąžina, ar kodui sudaroma ribota sindromų lentelė, kuriai reikia didžiausio klaidų svorio t.
+     */
+    public static boolean needsMaxWeight(CodeData codeData) {
+        int redundancy = codeData.getN() - codeData.getK();
+        return redundancy > SPARSE_TABLE_THRESHOLD && redundancy <= Long.SIZE;
+    }
+
+    /**
+     * @return      grąžina, ar kodas per didelis sindromų lentelei ir dekoduojamas keičiant bitus.
+     */
+    public static boolean usesBitFlipping(CodeData codeData) {
+        return codeData.getN() - codeData.getK() > Long.SIZE;
+    }
+
+    /**
+     * Sudaromas kodo kontekstas su kodui tinkama sindromų lentele (pilna arba ribota).
+     * @param codeData      kodo parametrai (n-k ne didesnis nei 64).
+     * @param maxWeight     ribotos lentelės didžiausias klaidų svoris (naudojamas tik kai "needsMaxWeight").
+     * @param progress      čia pranešama sudarymo eiga.
+     * @return              grąžina kodo kontekstą.
+     */
+    public static CodeContext createContext(CodeData codeData, int maxWeight, BuildProgress progress) {
+        if(usesBitFlipping(codeData)) {
+            throw new IllegalArgumentException("Kai n-k didesnis nei " + Long.SIZE +
+                    ", sindromų lentelės sudaryti neįmanoma.");
+        }
+        return new CodeContext(codeData, maxWeight, progress);
+    }
+
+    /**
+     * Sudaromas kodui tinkamas dekoderis (lentelė sudaroma iškart).
+     * @param codeData      kodo parametrai.
+     * @param maxWeight     ribotos lentelės didžiausias klaidų svoris (naudojamas tik kai "needsMaxWeight").
+     * @return              grąžina dekoderį.
+     */
+    public static Decoder create(CodeData codeData, int maxWeight) {
+        if(usesBitFlipping(codeData)) return new BitFlippingDecoder(new SparseParityCheck(codeData));
+        return new StepByStepDecoder(createContext(codeData, maxWeight, new BuildProgress()));
+    }
+
+}
@@ -0,0 +1,115 @@
+package decoders;
+
+import data.CodeData;
+
+/**
+ * Golėjaus kodų (24, 12) ir (23, 12) dekoderis be sindromų lentelės (Hankerson ir kt., „Coding Theory and
+ * Cryptography“, 3.6 skyrius). Generuojanti matrica yra [I | B], kur B - simetrinė 12x12 matrica, kurios
+ * kvadratas lygus vienetinei, todėl iš sindromo s = u1*B + u2 ir iš s*B = u1 + u2*B galima tiesiogiai rasti
+ * iki trijų klaidų vektorių u = (u1, u2). Keturios klaidos aptinkamos, bet netaisomos.
+ * Kodas (23, 12) gaunamas išmetus paskutinį išplėstinio kodo bitą. Dekoduojant bitas pridedamas taip, kad
+ * vektoriaus svoris būtų nelyginis (išplėstinio kodo žodžių svoriai lyginiai), ir dekoduojama kaip (24, 12).
+ * Vektoriai čia laikomi 12 bitų skaičiais: j-tasis bitas - j-toji koordinatė.
+ */
+public class GolayDecoder implements Decoder {
+
+    public static final int K = 12;
+    private static final int MASK = (1 << K) - 1;
+    private static final int[] B_ROWS = createRows();
+
+    private final boolean extended;
+
+    public GolayDecoder(CodeData codeData) {
+        if(codeData.getK() != K || (codeData.getN() != 23 && codeData.getN() != 24)) {
+            throw new IllegalArgumentException("Golėjaus dekoderis tinka tik (23, 12) ir (24, 12) kodams.");
+        }
+        extended = codeData.getN() == 24;
+    }
+
+    /**
+     * B matricos pirmosios 11 eilučių - ciklinės „11011100010“ postūmiai su vienetu gale, paskutinė eilutė -
+     * 11 vienetų ir nulis.
+     */
+    private static int[] createRows() {
+        String first = "11011100010";
+        int[] rows = new int[K];
+        for(int i = 0; i < K - 1; i++) {
+            for(int j = 0; j < K - 1; j++) {
+                if(first.charAt((j + i) % (K - 1)) == '1') rows[i] |= 1 << j;
+            }
+            rows[i] |= 1 << (K - 1);
+        }
+        rows[K - 1] = MASK ^ (1 << (K - 1));
+        return rows;
+    }
+
+    /**
+     * @param columns   kiek B stulpelių palikti (12 - išplėstiniam kodui, 11 - kodui (23, 12)).
+     * @return          grąžina generuojančios matricos dalį be vienetinės dalies (12 eilučių).
+     */
+    public static int[][] createMatrix(int columns) {
+        int[][] matrix = new int[K][columns];
+        for(int i = 0; i < K; i++) {
+            for(int j = 0; j < columns; j++) {
+                matrix[i][j] = (B_ROWS[i] >>> j) & 1;
+            }
+        }
+        return matrix;
+    }
+
+    private static int multiply(int vector) {
+        int result = 0;
+        for(int i = 0; i < K; i++) {
+            if((vector >>> i & 1) != 0) result ^= B_ROWS[i];
+        }
+        return result;
+    }
+
+    /**
+     * Ieškoma ne daugiau kaip trijų klaidų vektoriaus: pirmiausia tarp tokių, kurių informacinėje dalyje ne daugiau
+     * kaip viena klaida, paskui - tarp tokių, kurių kontrolinėje dalyje ne daugiau kaip viena klaida.
+     * @param corruptedCode     vektorius, kurį siekiama dekoduoti.
+     * @return                  grąžina dekodavimo rezultatą (išbandytų pozicijų vietoje - pakeistų bitų skaičius).
+     */
+    @Override
+    public DecodeResult decode(int[] corruptedCode) {
+        int information = 0;
+        int check = 0;
+        for(int i = 0; i < K; i++) information |= corruptedCode[i] << i;
+        for(int i = K; i < corruptedCode.length; i++) check |= corruptedCode[i] << (i - K);
+        if(!extended && (Integer.bitCount(information) + Integer.bitCount(check)) % 2 == 0) {
+            check |= 1 << (K - 1); // Pridedamas išmestas bitas, kad svoris būtų nelyginis.
+        }
+        int syndrome = multiply(information) ^ check;
+        int informationError = -1;
+        int checkError = 0;
+        if(Integer.bitCount(syndrome) <= 3) {
+            informationError = 0;
+            checkError = syndrome;
+        }
+        for(int i = 0; informationError < 0 && i < K; i++) {
+            if(Integer.bitCount(syndrome ^ B_ROWS[i]) <= 2) {
+                informationError = 1 << i;
+                checkError = syndrome ^ B_ROWS[i];
+            }
+        }
+        int product = multiply(syndrome);
+        if(informationError < 0 && Integer.bitCount(product) <= 3) {
+            informationError = product;
+            checkError = 0;
+        }
+        for(int i = 0; informationError < 0 && i < K; i++) {
+            if(Integer.bitCount(product ^ B_ROWS[i]) <= 2) {
+                informationError = product ^ B_ROWS[i];
+                checkError = 1 << i;
+            }
+        }
+        if(informationError < 0) return new DecodeResult(corruptedCode, false, 0);
+        for(int i = 0; i < K; i++) {
+            corruptedCode[i] ^= informationError >>> i & 1;
+            if(K + i < corruptedCode.length) corruptedCode[K + i] ^= checkError >>> i & 1;
+        }
+        return new DecodeResult(corruptedCode, true, Integer.bitCount(informationError) + Integer.bitCount(checkError));
+    }
+
+}
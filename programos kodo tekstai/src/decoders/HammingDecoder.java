@@ -0,0 +1,50 @@
+package decoders;
+
+import data.CodeData;
+
+/**
+ * Hamingo ir išplėstinių Hamingo kodų dekoderis. Sindromų lentelės nereikia: vienos klaidos sindromas lygus
+ * kontrolinės matricos stulpeliui klaidos pozicijoje, todėl pagal sindromą iškart randama, kurį bitą keisti.
+ * Išplėstinio kodo visų kontrolinės matricos stulpelių svoris nelyginis, todėl dviejų klaidų sindromas
+ * (lyginio svorio ir nenulinis) jokio stulpelio neatitinka - tokios klaidos aptinkamos, bet netaisomos.
+ * Tinka bet kuriam kodui, kurio kontrolinės matricos stulpeliai skirtingi ir nenuliniai.
+ */
+public class HammingDecoder implements Decoder {
+
+    public static final int MAX_REDUNDANCY = 20; // Pozicijų rodyklė turi 2^(n-k) įrašų.
+
+    private final CodeData codeData;
+    private final int[] positions; // Sindromas -> klaidos pozicija + 1 (0 - tokio stulpelio nėra).
+
+    public HammingDecoder(CodeData codeData) {
+        int redundancy = codeData.getN() - codeData.getK();
+        if(redundancy > MAX_REDUNDANCY) {
+            throw new IllegalArgumentException("Hamingo dekoderiui n-k turi būti ne didesnis nei " + MAX_REDUNDANCY + ".");
+        }
+        this.codeData = codeData;
+        positions = new int[1 << redundancy];
+        for(int i = 0; i < codeData.getN(); i++) {
+            int column = (int) codeData.getPackedParityColumn(i);
+            if(column == 0 || positions[column] != 0) {
+                throw new IllegalArgumentException("Kontrolinės matricos stulpeliai turi būti skirtingi ir nenuliniai.");
+            }
+            positions[column] = i + 1;
+        }
+    }
+
+    /**
+     * Apskaičiuojamas sindromas ir, jeigu jis nenulinis, keičiamas jį atitinkančios pozicijos bitas.
+     * @param corruptedCode     vektorius, kurį siekiama dekoduoti.
+     * @return                  grąžina dekodavimo rezultatą (pakeistų pozicijų skaičius - 0 arba 1).
+     */
+    @Override
+    public DecodeResult decode(int[] corruptedCode) {
+        int syndrome = (int) codeData.calculatePackedSyndrome(corruptedCode);
+        if(syndrome == 0) return new DecodeResult(corruptedCode, true, 0);
+        int position = positions[syndrome] - 1;
+        if(position < 0) return new DecodeResult(corruptedCode, false, 0);
+        corruptedCode[position] ^= 1;
+        return new DecodeResult(corruptedCode, true, 1);
+    }
+
+}
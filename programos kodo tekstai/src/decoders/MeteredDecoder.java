@@ -0,0 +1,34 @@
+package decoders;
+
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dekoderio apvalkalas, kuris kiekvieną dekodavimą įrašo į programos veikimo rodiklius ("Metrics"):
+ * dekoduotų vektorių ir nepavykusių dekodavimų skaičių, dekodavimo trukmę ir išbandytų pozicijų skaičių.
+ */
+public class MeteredDecoder implements Decoder {
+
+    private final Decoder decoder;
+    private final LongAdder decodedWords = Metrics.counter(Metrics.WORDS_DECODED);
+    private final LongAdder failures = Metrics.counter(Metrics.DECODE_FAILURES);
+    private final LatencyHistogram decodeNanos = Metrics.histogram(Metrics.DECODE_NANOS);
+    private final LatencyHistogram triedPositions = Metrics.histogram(Metrics.DECODE_ITERATIONS);
+
+    public MeteredDecoder(Decoder decoder) {
+        this.decoder = decoder;
+    }
+
+    @Override
+    public DecodeResult decode(int[] corruptedCode) {
+        long start = System.nanoTime();
+        DecodeResult result = decoder.decode(corruptedCode);
+        decodeNanos.record(System.nanoTime() - start);
+        decodedWords.increment();
+        if(!result.isSuccess()) failures.increment();
+        triedPositions.record(result.getTriedPositions());
+        return result;
+    }
+
+}
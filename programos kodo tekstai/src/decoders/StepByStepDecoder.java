@@ -0,0 +1,85 @@
+package decoders;
+
+import data.CodeContext;
+import data.CodeData;
+import data.SyndromeLeaderTable;
+import utils.CodeMath;
+
+/**
+ * Grandininis ("step-by-step") dekoderis, naudojantis sindromų lentelę (pilną arba ribotą).
+ * Sukurtas su kodo kontekstu ("CodeContext"), sindromą apskaičiuoja tik vieną kartą, o keičiant bitą jį atnaujina
+ * pridėdamas (XOR) tos pozicijos stulpelį.
+ */
+public class StepByStepDecoder implements Decoder {
+
+    private final SyndromeLeaderTable syndromeTable;
+    private final CodeData codeData;
+    private final CodeContext context; // null, kai naudojama tik sindromų lentelė.
+
+    public StepByStepDecoder(SyndromeLeaderTable syndromeTable, CodeData codeData) {
+        this.syndromeTable = syndromeTable;
+        this.codeData = codeData;
+        context = null;
+    }
+
+    public StepByStepDecoder(CodeContext context) {
+        syndromeTable = context;
+        codeData = context.getCodeData();
+        this.context = context;
+    }
+
+    /**
+     * Pasinaudojus syndromų lentele, atsekant lyderių svorius dekoduojamas vektorius.
+     * Siekama gauti nulinį sindromą, kurio lyderio svoris yra 0 (nes tai reiškia, kad vektorius priklauso kodui,
+     * kadangi sudauginus kontrolinę matricą su transponuotu kodo žodžiu turi gautis nulinis sindromas).
+     * Kiekviena pozicija bandoma ne daugiau kaip vieną kartą, todėl atliekama ne daugiau kaip n žingsnių.
+     * Jei naudojama ribota lentelė ir pakeitus bitą sindromo lentelėje nėra, laikoma, kad svoris nesumažėjo.
+     * Dekoduoti nepavyksta, jei gauto vektoriaus sindromo lentelėje nėra arba, išbandžius visas pozicijas,
+     * nulinis sindromas taip ir negautas.
+     * @param corruptedCode     vektorius, kurį siekiama dekoduoti.
+     * @return                  grąžina dekodavimo rezultatą.
+     */
+    @Override
+    public DecodeResult decode(int[] corruptedCode) {
+        if(context != null) return decodePacked(corruptedCode);
+        int oldWeight = syndromeTable.getLeaderWeight(corruptedCode);
+        if(oldWeight == SyndromeLeaderTable.UNKNOWN_WEIGHT) return new DecodeResult(corruptedCode, false, 0);
+        if(oldWeight == 0) return new DecodeResult(corruptedCode, true, 0);
+        // Žingsninis pozicijos sekiklis (kur jis rodys, ten keisime bitus).
+        for(int m = 0; m < codeData.getN(); m++) {
+            corruptedCode[m] = CodeMath.changeBit(corruptedCode[m]);
+            int weight = syndromeTable.getLeaderWeight(corruptedCode);
+            if(weight == 0) return new DecodeResult(corruptedCode, true, m + 1);
+            if(weight == SyndromeLeaderTable.UNKNOWN_WEIGHT || weight >= oldWeight) {
+                corruptedCode[m] = CodeMath.changeBit(corruptedCode[m]);
+            }
+            else oldWeight = weight;
+        }
+        return new DecodeResult(corruptedCode, false, codeData.getN());
+    }
+
+    /**
+     * Tas pats algoritmas, tik su supakuotu sindromu, kuris keičiant bitą atnaujinamas, o ne skaičiuojamas iš naujo.
+     */
+    private DecodeResult decodePacked(int[] corruptedCode) {
+        long syndrome = context.calculatePackedSyndrome(corruptedCode);
+        int oldWeight = context.getLeaderWeight(syndrome);
+        if(oldWeight == SyndromeLeaderTable.UNKNOWN_WEIGHT) return new DecodeResult(corruptedCode, false, 0);
+        if(oldWeight == 0) return new DecodeResult(corruptedCode, true, 0);
+        for(int m = 0; m < context.getN(); m++) {
+            long changed = syndrome ^ context.getPackedParityColumn(m);
+            int weight = context.getLeaderWeight(changed);
+            if(weight == 0) {
+                corruptedCode[m] ^= 1;
+                return new DecodeResult(corruptedCode, true, m + 1);
+            }
+            if(weight != SyndromeLeaderTable.UNKNOWN_WEIGHT && weight < oldWeight) {
+                corruptedCode[m] ^= 1;
+                syndrome = changed;
+                oldWeight = weight;
+            }
+        }
+        return new DecodeResult(corruptedCode, false, context.getN());
+    }
+
+}
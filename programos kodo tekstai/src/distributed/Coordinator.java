@@ -0,0 +1,250 @@
+package distributed;
+
+import data.CodeData;
+import utils.CodeMath;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paskirstyto Monte Karlo modeliavimo koordinatorius. Darbas (kodai × klaidos tikimybės × "seed" intervalai)
+ * padalijamas į vienetus, kuriuos pasiima prisijungę darbininkai. Jeigu darbininkas atsijungia nebaigęs vieneto,
+ * vienetas grąžinamas į eilę ir atiduodamas kitam. Tas pats daroma, jeigu darbininkas per nustatytą laiką neatsiunčia
+ * jokio atsakymo (pvz., pakibo): ryšys nutraukiamas, o vienetas atiduodamas kitam. Rezultatai sujungiami pagal vieneto numerį, todėl galutinės
+ * sumos tikslios ir nepriklauso nuo darbininkų skaičiaus ar vykdymo tvarkos.
+ */
+public class Coordinator implements Closeable {
+
+    private static final long POLL_MILLIS = 200;
+    public static final int DEFAULT_UNIT_TIMEOUT_MILLIS = 10 * 60 * 1000; // Kiek laukiama vieneto rezultato.
+
+    private final List<CodeData> codes;
+    private final List<WorkUnit> units;
+    private final BlockingQueue<WorkUnit> queue;
+    private final Map<Integer, SimulationCounts> results = new ConcurrentHashMap<>();
+    private final CountDownLatch finished;
+    private final int unitTimeoutMillis;
+    private final List<Process> localWorkers = new ArrayList<>();
+    private ServerSocket serverSocket;
+
+    public Coordinator(List<CodeData> codes, List<WorkUnit> units) {
+        this(codes, units, DEFAULT_UNIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param unitTimeoutMillis     kiek milisekundžių laukiama darbininko atsakymo (į jį įeina ir dekoderio
+     *                              sudarymas), kol vienetas atiduodamas kitam.
+     */
+    public Coordinator(List<CodeData> codes, List<WorkUnit> units, int unitTimeoutMillis) {
+        this.codes = codes;
+        this.units = units;
+        this.unitTimeoutMillis = unitTimeoutMillis;
+        queue = new LinkedBlockingQueue<>(units);
+        finished = new CountDownLatch(units.size());
+    }
+
+    /**
+     * Sudaromi darbo vienetai: kiekvienam kodui ir klaidos tikimybei "seed" intervalas [0, seeds) padalijamas
+     * į seedsPerUnit dydžio dalis.
+     */
+    public static List<WorkUnit> createUnits(int codeCount, double[] errorChances, long seeds, int seedsPerUnit,
+                                             int blocksPerSeed) {
+        List<WorkUnit> units = new ArrayList<>();
+        for(int code = 0; code < codeCount; code++) {
+            for(double errorChance : errorChances) {
+                for(long seed = 0; seed < seeds; seed += seedsPerUnit) {
+                    int count = (int) Math.min(seedsPerUnit, seeds - seed);
+                    units.add(new WorkUnit(units.size(), code, errorChance, seed, count, blocksPerSeed));
+                }
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Pradedama laukti darbininkų visais kompiuterio adresais.
+     * @param port      prievadas (0 - bet kuris laisvas).
+     * @return          grąžina prievadą, kurio laukiama.
+     */
+    public int start(int port) throws IOException {
+        return start(null, port);
+    }
+
+    /**
+     * Pradedama laukti darbininkų.
+     * @param address   adresas, kuriuo laukiama (null - visais kompiuterio adresais).
+     * @param port      prievadas (0 - bet kuris laisvas).
+     * @return          grąžina prievadą, kurio laukiama.
+     */
+    public int start(InetAddress address, int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, address);
+        Thread acceptor = new Thread(this::acceptWorkers, "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Paleidžiami darbininkų procesai šiame kompiuteryje (ta pati Java ir tas pats klasių kelias).
+     * @param count     darbininkų skaičius.
+     */
+    public void spawnLocalWorkers(int count) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        InetAddress address = serverSocket.getInetAddress();
+        String host = (address.isAnyLocalAddress() ? InetAddress.getLoopbackAddress() : address).getHostAddress();
+        for(int i = 0; i < count; i++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    Worker.class.getName(), host, String.valueOf(serverSocket.getLocalPort()));
+            builder.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            localWorkers.add(builder.start());
+        }
+    }
+
+    private void acceptWorkers() {
+        while(!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> serveWorker(socket), "coordinator-worker");
+                thread.setDaemon(true);
+                thread.start();
+            } catch(IOException e) {
+                return; // Lizdas uždarytas.
+            }
+        }
+    }
+
+    private void serveWorker(Socket socket) {
+        WorkUnit assigned = null;
+        try(socket) {
+            socket.setSoTimeout(unitTimeoutMillis); // Pakibęs darbininkas atjungiamas, o jo vienetas atiduodamas kitam.
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(codes.size());
+            for(CodeData code : codes) Messages.writeCode(out, code);
+            out.flush();
+            while(true) {
+                byte message = in.readByte();
+                if(message == Messages.RESULT) {
+                    int id = in.readInt();
+                    SimulationCounts counts = SimulationCounts.read(in);
+                    if(results.putIfAbsent(id, counts) == null) finished.countDown();
+                    assigned = null;
+                }
+                assigned = nextUnit();
+                if(assigned == null) {
+                    out.writeByte(Messages.DONE);
+                    out.flush();
+                    return;
+                }
+                out.writeByte(Messages.UNIT);
+                assigned.write(out);
+                out.flush();
+            }
+        } catch(IOException | InterruptedException e) {
+            if(assigned != null && !results.containsKey(assigned.getId())) queue.add(assigned); // Atiduodamas kitam.
+        }
+    }
+
+    /**
+     * Laukiama kito vieneto. Jeigu eilė tuščia, bet dar ne visi rezultatai gauti, laukiama, nes kito
+     * darbininko vienetas gali grįžti į eilę.
+     * @return      grąžina vienetą arba null, jeigu visi rezultatai jau gauti.
+     */
+    private WorkUnit nextUnit() throws InterruptedException {
+        while(finished.getCount() > 0) {
+            WorkUnit unit = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if(unit != null && !results.containsKey(unit.getId())) return unit;
+        }
+        return null;
+    }
+
+    /**
+     * Laukiama, kol bus gauti visų vienetų rezultatai.
+     * @return      grąžina sujungtus rezultatus: raktas - kodo numeris ir klaidos tikimybė.
+     */
+    public Map<String, SimulationCounts> awaitResults() throws InterruptedException {
+        finished.await();
+        Map<String, SimulationCounts> merged = new TreeMap<>();
+        for(WorkUnit unit : units) { // Sujungiama vienetų tvarka, ne gavimo tvarka.
+            String key = String.format(Locale.ROOT, "%d %.6f", unit.getCodeIndex(), unit.getErrorChance());
+            merged.computeIfAbsent(key, ignored -> new SimulationCounts()).add(results.get(unit.getId()));
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for(Process worker : localWorkers) {
+            try {
+                if(!worker.waitFor(5, TimeUnit.SECONDS)) worker.destroy();
+            } catch(InterruptedException e) {
+                worker.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Paleidimas: prievadas („prievadas“ - laukiama visais adresais, „mazgas:prievadas“ - tik nurodytu), vietinių
+     * darbininkų skaičius, klaidos tikimybės (per kablelį), "seed" skaičius, "seed" viename vienete, vektorių vienam
+     * "seed" ir kodai „k:n:matricosSeed“.
+     * Pvz.: 0 4 0.01,0.02,0.05 1000 50 100 4:12:1 7:15:2
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 7) {
+            System.out.println("Naudojimas: Coordinator [mazgas:]prievadas darbininkai tikimybės seeds seedsVienete " +
+                    "vektoriaiSeed k:n:matricosSeed [k:n:matricosSeed ...]");
+            return;
+        }
+        String[] chances = args[2].split(",");
+        double[] errorChances = new double[chances.length];
+        for(int i = 0; i < chances.length; i++) errorChances[i] = Double.parseDouble(chances[i]);
+        List<CodeData> codes = new ArrayList<>();
+        for(int i = 6; i < args.length; i++) {
+            String[] parts = args[i].split(":");
+            int k = Integer.parseInt(parts[0]);
+            int n = Integer.parseInt(parts[1]);
+            int[][] matrix = CodeMath.generateMatrix(k, n - k, new Random(Long.parseLong(parts[2])));
+            codes.add(new CodeData(k, n, matrix, errorChances[0]));
+        }
+        List<WorkUnit> units = createUnits(codes.size(), errorChances, Long.parseLong(args[3]),
+                Integer.parseInt(args[4]), Integer.parseInt(args[5]));
+        long start = System.nanoTime();
+        try(Coordinator coordinator = new Coordinator(codes, units)) {
+            int separator = args[0].lastIndexOf(':');
+            InetAddress address = separator < 0 ? null : InetAddress.getByName(args[0].substring(0, separator));
+            int port = coordinator.start(address, Integer.parseInt(args[0].substring(separator + 1)));
+            System.out.println("Koordinatorius laukia darbininkų prievade " + port + ", vienetų: " + units.size() + ".");
+            coordinator.spawnLocalWorkers(Integer.parseInt(args[1]));
+            Map<String, SimulationCounts> results = coordinator.awaitResults();
+            System.out.println("kodas tikimybė vektoriai kanaloKlaidos likusiosBitųKlaidos BER likusiųKlaidųŽodžiai WER nepavykoDekoduoti");
+            for(Map.Entry<String, SimulationCounts> entry : results.entrySet()) {
+                SimulationCounts counts = entry.getValue();
+                System.out.printf(Locale.ROOT, "%s %d %d %d %.6e %d %.6e %d%n", entry.getKey(), counts.getBlocks(),
+                        counts.getChannelErrors(), counts.getResidualBitErrors(), counts.getResidualBitErrorRate(),
+                        counts.getWordErrors(), counts.getWordErrorRate(), counts.getDecodeFailures());
+            }
+        }
+        System.out.println("Užtruko " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+}
@@ -0,0 +1,43 @@
+package distributed;
+
+import data.CodeData;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Koordinatoriaus ir darbininkų pranešimų tipai bei kodo parametrų perdavimas.
+ * Prisijungęs darbininkas gauna visų kodų parametrus, tada prašo darbo (REQUEST) ir gauna vienetą (UNIT) arba
+ * žinią, kad darbų nebėra (DONE). Atlikęs vienetą, išsiunčia rezultatą (RESULT) ir gauna kitą vienetą.
+ */
+final class Messages {
+
+    static final byte REQUEST = 1;
+    static final byte RESULT = 2;
+    static final byte UNIT = 3;
+    static final byte DONE = 4;
+
+    private Messages() {
+    }
+
+    static void writeCode(DataOutputStream out, CodeData codeData) throws IOException {
+        out.writeInt(codeData.getK());
+        out.writeInt(codeData.getN());
+        out.writeDouble(codeData.getErrorChance());
+        for(int[] row : codeData.getMatrix()) {
+            for(int bit : row) out.writeByte(bit);
+        }
+    }
+
+    static CodeData readCode(DataInputStream in) throws IOException {
+        int k = in.readInt();
+        int n = in.readInt();
+        double errorChance = in.readDouble();
+        int[][] matrix = new int[k][n - k];
+        for(int[] row : matrix) {
+            for(int i = 0; i < row.length; i++) row[i] = in.readByte();
+        }
+        return new CodeData(k, n, matrix, errorChance);
+    }
+
+}
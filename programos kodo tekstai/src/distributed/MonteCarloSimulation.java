@@ -0,0 +1,51 @@
+package distributed;
+
+import channels.Channel;
+import data.CodeData;
+import decoders.DecodeResult;
+import decoders.Decoder;
+import utils.CodeMath;
+import java.util.Random;
+
+/**
+ * Vieno darbo vieneto modeliavimas: atsitiktinės žinutės užkoduojamos, siunčiamos kanalu ir dekoduojamos,
+ * o klaidos suskaičiuojamos. Žinutės ir kanalo klaidos generuojamos iš "seed", todėl rezultatas visada
+ * tas pats, kad ir kur ir kiek kartų vienetas būtų vykdomas.
+ */
+public class MonteCarloSimulation {
+
+    private static final long CHANNEL_SEED_OFFSET = 0x9E3779B97F4A7C15L; // Kad kanalo ir žinučių sekos skirtųsi.
+
+    private MonteCarloSimulation() {
+    }
+
+    /**
+     * @param unit          darbo vienetas.
+     * @param codeData      vieneto kodo parametrai.
+     * @param decoder       vieneto kodo dekoderis.
+     * @return              grąžina vieneto skaitliukus.
+     */
+    public static SimulationCounts run(WorkUnit unit, CodeData codeData, Decoder decoder) {
+        SimulationCounts counts = new SimulationCounts();
+        int k = codeData.getK();
+        int[] message = new int[k];
+        for(long seed = unit.getSeedStart(); seed < unit.getSeedStart() + unit.getSeedCount(); seed++) {
+            Random payload = new Random(seed);
+            Channel channel = new Channel(unit.getErrorChance(), seed + CHANNEL_SEED_OFFSET);
+            for(int block = 0; block < unit.getBlocksPerSeed(); block++) {
+                for(int i = 0; i < k; i++) message[i] = payload.nextInt(2);
+                int[] code = codeData.encode(message);
+                int[] received = channel.transmit(code);
+                int channelErrors = CodeMath.calculateErrorCount(code, received);
+                DecodeResult result = decoder.decode(received);
+                int residualErrors = 0;
+                for(int i = 0; i < k; i++) {
+                    if(result.getDecoded()[i] != message[i]) residualErrors++;
+                }
+                counts.addBlock(k, channelErrors, residualErrors, !result.isSuccess());
+            }
+        }
+        return counts;
+    }
+
+}
@@ -0,0 +1,96 @@
+package distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Modeliavimo skaitliukai. Visi laukai yra sveikieji skaičiai, todėl sujungiant skirtingų darbininkų rezultatus
+ * sumos yra tikslios ir nepriklauso nuo sujungimo tvarkos.
+ */
+public class SimulationCounts {
+
+    private long blocks; // Nusiųsta vektorių.
+    private long informationBits; // Nusiųsta informacinių bitų (k kiekviename vektoriuje).
+    private long channelErrors; // Kanalo padarytų klaidų.
+    private long residualBitErrors; // Informacinių bitų klaidų, likusių po dekodavimo.
+    private long wordErrors; // Vektorių, kuriuose po dekodavimo liko bent viena klaida.
+    private long decodeFailures; // Vektorių, kurių dekoderis nesugebėjo dekoduoti.
+
+    void addBlock(int k, int channelErrorCount, int residualErrorCount, boolean decodeFailed) {
+        blocks++;
+        informationBits += k;
+        channelErrors += channelErrorCount;
+        residualBitErrors += residualErrorCount;
+        if(residualErrorCount != 0) wordErrors++;
+        if(decodeFailed) decodeFailures++;
+    }
+
+    /**
+     * Pridedami kito rezultato skaitliukai.
+     */
+    public void add(SimulationCounts other) {
+        blocks += other.blocks;
+        informationBits += other.informationBits;
+        channelErrors += other.channelErrors;
+        residualBitErrors += other.residualBitErrors;
+        wordErrors += other.wordErrors;
+        decodeFailures += other.decodeFailures;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(blocks);
+        out.writeLong(informationBits);
+        out.writeLong(channelErrors);
+        out.writeLong(residualBitErrors);
+        out.writeLong(wordErrors);
+        out.writeLong(decodeFailures);
+    }
+
+    static SimulationCounts read(DataInputStream in) throws IOException {
+        SimulationCounts counts = new SimulationCounts();
+        counts.blocks = in.readLong();
+        counts.informationBits = in.readLong();
+        counts.channelErrors = in.readLong();
+        counts.residualBitErrors = in.readLong();
+        counts.wordErrors = in.readLong();
+        counts.decodeFailures = in.readLong();
+        return counts;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public long getInformationBits() {
+        return informationBits;
+    }
+
+    public long getChannelErrors() {
+        return channelErrors;
+    }
+
+    public long getResidualBitErrors() {
+        return residualBitErrors;
+    }
+
+    public long getWordErrors() {
+        return wordErrors;
+    }
+
+    public long getDecodeFailures() {
+        return decodeFailures;
+    }
+
+    /**
+     * @return      grąžina informacinių bitų klaidų dalį po dekodavimo.
+     */
+    public double getResidualBitErrorRate() {
+        return informationBits == 0 ? 0 : (double) residualBitErrors / informationBits;
+    }
+
+    public double getWordErrorRate() {
+        return blocks == 0 ? 0 : (double) wordErrors / blocks;
+    }
+
+}
@@ -0,0 +1,67 @@
+package distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Vienas darbo vienetas: kurį kodą, su kokia klaidos tikimybe ir kuriais "seed" reikia modeliuoti.
+ * Kiekvienam "seed" siunčiama blocksPerSeed vektorių, todėl rezultatas priklauso tik nuo vieneto duomenų
+ * ir nepriklauso nuo to, kuris darbininkas jį vykdė.
+ */
+public class WorkUnit {
+
+    private final int id;
+    private final int codeIndex;
+    private final double errorChance;
+    private final long seedStart;
+    private final int seedCount;
+    private final int blocksPerSeed;
+
+    public WorkUnit(int id, int codeIndex, double errorChance, long seedStart, int seedCount, int blocksPerSeed) {
+        this.id = id;
+        this.codeIndex = codeIndex;
+        this.errorChance = errorChance;
+        this.seedStart = seedStart;
+        this.seedCount = seedCount;
+        this.blocksPerSeed = blocksPerSeed;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(id);
+        out.writeInt(codeIndex);
+        out.writeDouble(errorChance);
+        out.writeLong(seedStart);
+        out.writeInt(seedCount);
+        out.writeInt(blocksPerSeed);
+    }
+
+    static WorkUnit read(DataInputStream in) throws IOException {
+        return new WorkUnit(in.readInt(), in.readInt(), in.readDouble(), in.readLong(), in.readInt(), in.readInt());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCodeIndex() {
+        return codeIndex;
+    }
+
+    public double getErrorChance() {
+        return errorChance;
+    }
+
+    public long getSeedStart() {
+        return seedStart;
+    }
+
+    public int getSeedCount() {
+        return seedCount;
+    }
+
+    public int getBlocksPerSeed() {
+        return blocksPerSeed;
+    }
+
+}
@@ -0,0 +1,79 @@
+package distributed;
+
+import data.CodeData;
+import decoders.Decoder;
+import decoders.DecoderFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Darbininkas: atskiras JVM procesas, kuris prisijungia prie koordinatoriaus, gauna kodų parametrus,
+ * vienetą po vieneto vykdo modeliavimą ir grąžina skaitliukus. Kodų dekoderiai sudaromi tik tada,
+ * kai pirmą kartą gaunamas to kodo vienetas.
+ */
+public class Worker {
+
+    private static final int SPARSE_TABLE_MAX_WEIGHT = 3; // Ribotos sindromų lentelės t (kai n-k didesnis nei 24).
+
+    private final List<CodeData> codes = new ArrayList<>();
+    private final List<Decoder> decoders = new ArrayList<>();
+
+    /**
+     * Dirbama, kol koordinatorius praneša, kad darbų nebėra.
+     * @param host      koordinatoriaus mazgas.
+     * @param port      koordinatoriaus prievadas.
+     * @return          grąžina atliktų vienetų skaičių.
+     */
+    public int run(String host, int port) throws IOException {
+        int completed = 0;
+        try(Socket socket = new Socket(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            int codeCount = in.readInt();
+            for(int i = 0; i < codeCount; i++) {
+                codes.add(Messages.readCode(in));
+                decoders.add(null);
+            }
+            out.writeByte(Messages.REQUEST);
+            out.flush();
+            while(in.readByte() == Messages.UNIT) {
+                WorkUnit unit = WorkUnit.read(in);
+                SimulationCounts counts = MonteCarloSimulation.run(unit, codes.get(unit.getCodeIndex()),
+                        decoder(unit.getCodeIndex()));
+                out.writeByte(Messages.RESULT);
+                out.writeInt(unit.getId());
+                counts.write(out);
+                out.flush();
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    private Decoder decoder(int codeIndex) {
+        if(decoders.get(codeIndex) == null) {
+            CodeData codeData = codes.get(codeIndex);
+            decoders.set(codeIndex, DecoderFactory.create(codeData, SPARSE_TABLE_MAX_WEIGHT));
+        }
+        return decoders.get(codeIndex);
+    }
+
+    /**
+     * Paleidimas: koordinatoriaus mazgas ir prievadas.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.out.println("Naudojimas: Worker mazgas prievadas");
+            return;
+        }
+        int completed = new Worker().run(args[0], Integer.parseInt(args[1]));
+        System.out.println("Darbininkas baigė darbą, atlikta vienetų: " + completed + ".");
+    }
+
+}
@@ -0,0 +1,617 @@
+package main;
+
+import channels.Channel;
+import channels.ErrorModel;
+import channels.RecordingChannel;
+import channels.ReplayChannel;
+import channels.SplittableErrorModel;
+import data.CodeData;
+import data.SparseParityCheck;
+import decoders.BitFlippingDecoder;
+import decoders.CodePreset;
+import decoders.DecodeResult;
+import decoders.DecodeStatistics;
+import decoders.Decoder;
+import decoders.DecoderFactory;
+import decoders.MeteredDecoder;
+import metrics.Metrics;
+import pipeline.ComparisonPipeline;
+import pipeline.ImageQuality;
+import pipeline.MultiCodeComparison;
+import pipeline.StreamingPipeline;
+import pipeline.TiledImagePipeline;
+import utils.CodeMath;
+import utils.TextUtils;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Neinteraktyvus programos paleidimas: visi parametrai nurodomi argumentais, niekas neklausiama ir nieko
+ * neatidaroma darbalaukyje, todėl programą galima leisti serveryje ar automatiniuose bandymuose. Baigus darbą
+ * į standartinę išvestį išspausdinama viena JSON eilutė su trukmėmis ir klaidų skaičiais, kad paleidimus būtų
+ * galima palyginti tarpusavyje.
+ * <p>
+ * Argumentai: --k ir --n arba --preset (pvz., „golay24“, „hamming:4“), --p, --scenario (1 - vektorius, 2 - tekstas ar bet koks failas, 3 - paveiksliukas),
+ * --in ir --out (2 ir 3 scenarijams), --vector (1 scenarijui), --matrix failas arba --matrix-seed skaičius,
+ * --row-weight (reta matrica su tiek vienetų eilutėje), nebūtini --channel-seed, --t (ribotai sindromų lentelei),
+ * --decoder („table“ arba „bitflip“), --channel (klaidų modelis, pvz., „bsc“, „ge:0.001:0.1:0:0.5“, „burst:8“),
+ * --uncoded-out, --record, --replay, --metrics, --threads (kiek paveiksliuko juostų siunčiama lygiagrečiai).
+ * 4 scenarijus - kelių kodų palyginimas: --codes „k:n:matricos_sėkla,...“, --in failas, --p ir nebūtini --channel,
+ * --channel-seed; --t būtinas, jeigu bent vieno kodo n-k didesnis nei 24, o --record ir --replay negalimi. Visi
+ * kodai siunčiami vienu perėjimu per tą patį klaidų srautą.
+ * Kai 3 scenarijaus --out baigiasi „.tif“ ar „.tiff“, paveiksliukas siunčiamas juostomis ir visas į atmintį nekeliamas.
+ * Bet kokio formato 3 scenarijaus santraukoje pateikiami gauto paveiksliuko kokybės rodikliai („quality“, o su
+ * --uncoded-out - ir „uncodedQuality“).
+ * Pvz.: --k 8 --n 16 --p 0.01 --matrix-seed 1 --channel-seed 2 --scenario 2 --in tekstas.txt --out gautas.txt
+ */
+public class BatchRunner {
+
+    private static final List<String> FLAGS = List.of("--k", "--n", "--p", "--scenario", "--in", "--out", "--vector",
+            "--matrix", "--matrix-seed", "--channel-seed", "--t", "--uncoded-out", "--record", "--replay", "--metrics", "--preset",
+            "--row-weight", "--decoder", "--channel", "--threads", "--codes");
+
+    private final Map<String, String> options;
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private CodeData codeData;
+    private CodePreset preset;
+    private Channel channel;
+    private Decoder decoder;
+
+    public BatchRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Vykdomas nurodytas scenarijus ir grąžinama santrauka.
+     * @return      grąžina santrauką JSON formatu (viena eilutė).
+     */
+    public String run() throws IOException {
+        long start = System.nanoTime();
+        if(require("--scenario").equals("4")) {
+            runComparison();
+            summary.put("totalMs", millis(System.nanoTime() - start));
+            return toJson();
+        }
+        codeData = createCodeData();
+        channel = createChannel();
+        try {
+            createDecoder();
+            String scenario = require("--scenario");
+            summary.put("scenario", scenario);
+            long channelBits = Metrics.counter(Metrics.CHANNEL_BITS).sum();
+            long channelFlips = Metrics.counter(Metrics.CHANNEL_BITS_FLIPPED).sum();
+            if(scenario.equals("1")) runVector();
+            else if(scenario.equals("2")) runFile();
+            else if(scenario.equals("3")) runImage();
+            else throw new IllegalArgumentException("Tokio scenarijaus nėra: " + scenario);
+            summary.put("channelBits", Metrics.counter(Metrics.CHANNEL_BITS).sum() - channelBits);
+            summary.put("channelBitsFlipped", Metrics.counter(Metrics.CHANNEL_BITS_FLIPPED).sum() - channelFlips);
+        } finally {
+            channel.close();
+        }
+        summary.put("totalMs", millis(System.nanoTime() - start));
+        return toJson();
+    }
+
+    private CodeData createCodeData() throws IOException {
+        if(options.containsKey("--preset")) {
+            preset = CodePreset.parse(options.get("--preset"), readErrorChance());
+            summary.put("preset", preset.toString());
+            summary.put("k", preset.getCodeData().getK());
+            summary.put("n", preset.getCodeData().getN());
+            summary.put("p", preset.getCodeData().getErrorChance());
+            return preset.getCodeData();
+        }
+        int k = Integer.parseInt(require("--k"));
+        int n = Integer.parseInt(require("--n"));
+        if(k <= 0 || n < k) throw new IllegalArgumentException("Turi būti 0 < k <= n.");
+        double errorChance = readErrorChance();
+        summary.put("k", k);
+        summary.put("n", n);
+        summary.put("p", errorChance);
+        Random random = options.containsKey("--matrix-seed")
+                ? new Random(Long.parseLong(options.get("--matrix-seed"))) : new Random();
+        int[][] matrix;
+        if(options.containsKey("--matrix")) matrix = readMatrix(Path.of(options.get("--matrix")), k, n - k);
+        else if(options.containsKey("--row-weight")) {
+            int weight = Integer.parseInt(options.get("--row-weight"));
+            if(weight <= 0 || weight > n - k) throw new IllegalArgumentException("Turi būti 0 < --row-weight <= n-k.");
+            return CodeData.fromSparseRows(k, n, CodeMath.generateSparseRows(k, n - k, weight, random), errorChance);
+        }
+        else matrix = CodeMath.generateMatrix(k, n - k, random);
+        return new CodeData(k, n, matrix, errorChance);
+    }
+
+    private double readErrorChance() {
+        double errorChance = Double.parseDouble(require("--p"));
+        if(errorChance <= 0 || errorChance >= 1) throw new IllegalArgumentException("Klaidos tikimybė turi būti tarp 0 ir 1.");
+        return errorChance;
+    }
+
+    /**
+     * Matricos failas: k eilučių po n-k bitų (be vienetinės dalies), tuščios eilutės praleidžiamos.
+     */
+    private static int[][] readMatrix(Path path, int rows, int columns) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        lines.removeIf(line -> line.isBlank());
+        if(lines.size() != rows) {
+            throw new IllegalArgumentException("Matricos faile turi būti " + rows + " eilučių, o yra " + lines.size() + ".");
+        }
+        int[][] matrix = new int[rows][];
+        for(int i = 0; i < rows; i++) {
+            try {
+                matrix[i] = TextUtils.readVector(lines.get(i), columns);
+            } catch(Exception e) {
+                throw new IllegalArgumentException("Matricos " + (i + 1) + " eilutėje turi būti " + columns + " bitų.");
+            }
+        }
+        return matrix;
+    }
+
+    private Channel createChannel() throws IOException {
+        if(options.containsKey("--record") && options.containsKey("--replay")) {
+            throw new IllegalArgumentException("Negalima kartu nurodyti --record ir --replay.");
+        }
+        if(options.containsKey("--replay")) return new ReplayChannel(Path.of(options.get("--replay")));
+        Random random = options.containsKey("--channel-seed")
+                ? new Random(Long.parseLong(options.get("--channel-seed"))) : new Random();
+        ErrorModel model = ErrorModel.parse(options.getOrDefault("--channel", "bsc"), codeData.getErrorChance(), random);
+        summary.put("channel", options.getOrDefault("--channel", "bsc"));
+        summary.put("channelErrorChance", model.getErrorChance());
+        if(options.containsKey("--record")) return new RecordingChannel(model, Path.of(options.get("--record")));
+        return new Channel(model);
+    }
+
+    /**
+     * Lentelė sudaroma iškart (ne fone), kad jos sudarymo trukmė būtų matoma santraukoje atskirai.
+     * Žinomiems kodams lentelė nesudaroma. Kai n-k didesnis nei 64 arba nurodyta „--decoder bitflip“, naudojamas
+     * bitų keitimo dekoderis su reta kontroline matrica.
+     */
+    private void createDecoder() {
+        if(preset != null) {
+            decoder = new MeteredDecoder(preset.getDecoder());
+            return;
+        }
+        String decoderName = options.getOrDefault("--decoder", DecoderFactory.usesBitFlipping(codeData) ? "bitflip" : "table");
+        summary.put("decoder", decoderName);
+        if(decoderName.equals("bitflip")) {
+            decoder = new MeteredDecoder(new BitFlippingDecoder(new SparseParityCheck(codeData)));
+            return;
+        }
+        if(!decoderName.equals("table")) throw new IllegalArgumentException("Nežinomas dekoderis: " + decoderName);
+        if(DecoderFactory.usesBitFlipping(codeData)) {
+            throw new IllegalArgumentException("Kai n-k didesnis nei " + Long.SIZE + ", sindromų lentelės sudaryti neįmanoma.");
+        }
+        int maxWeight = 0;
+        if(DecoderFactory.needsMaxWeight(codeData)) {
+            maxWeight = Integer.parseInt(require("--t"));
+            summary.put("t", maxWeight);
+        }
+        long start = System.nanoTime();
+        decoder = new MeteredDecoder(DecoderFactory.create(codeData, maxWeight));
+        summary.put("tableBuildMs", millis(System.nanoTime() - start));
+    }
+
+    private void runVector() {
+        String line = require("--vector");
+        int[] vector;
+        try {
+            vector = TextUtils.readVector(line, codeData.getK());
+        } catch(Exception e) {
+            throw new IllegalArgumentException("Vektoriuje turi būti " + codeData.getK() + " bitų.");
+        }
+        long start = System.nanoTime();
+        int[] encoded = codeData.encode(vector);
+        int[] received = channel.transmit(encoded);
+        int channelErrors = CodeMath.calculateErrorCount(encoded, received); // Dekoderis keičia gautą vektorių.
+        DecodeResult result = decoder.decode(received);
+        summary.put("elapsedMs", millis(System.nanoTime() - start));
+        summary.put("channelErrors", channelErrors);
+        summary.put("decodeSuccess", result.isSuccess());
+        summary.put("triedPositions", result.getTriedPositions());
+        int residual = 0;
+        StringBuilder decoded = new StringBuilder();
+        for(int i = 0; i < codeData.getK(); i++) {
+            decoded.append(result.getDecoded()[i]);
+            if(result.getDecoded()[i] != vector[i]) residual++;
+        }
+        summary.put("decoded", decoded.toString());
+        summary.put("residualBitErrors", residual);
+    }
+
+    /**
+     * Failas (tekstas ar bet kokie kiti duomenys) siunčiamas neužkoduotas ir užkoduotas tuo pačiu kanalu.
+     * Kai nurodytas --uncoded-out, failas skaitomas vieną kartą ir abu siuntimai vyksta kartu („ComparisonPipeline“),
+     * o klaidos skaičiuojamos eigoje. Kitaip užkoduotas siunčiamas srautine grandine. Abiem atvejais failo dydis
+     * neribojamas atmintimi.
+     */
+    private void runFile() throws IOException {
+        Path in = Path.of(require("--in"));
+        Path out = Path.of(require("--out"));
+        summary.put("inputBytes", Files.size(in));
+        if(options.containsKey("--uncoded-out")) {
+            try(InputStream input = new BufferedInputStream(Files.newInputStream(in));
+                OutputStream uncoded = new BufferedOutputStream(Files.newOutputStream(Path.of(options.get("--uncoded-out"))));
+                OutputStream coded = new BufferedOutputStream(Files.newOutputStream(out))) {
+                compare(input, uncoded, coded);
+            }
+            return;
+        }
+        StreamingPipeline pipeline = new StreamingPipeline(codeData, channel, decoder);
+        long start = System.nanoTime();
+        try(InputStream input = new BufferedInputStream(Files.newInputStream(in));
+            OutputStream output = new BufferedOutputStream(Files.newOutputStream(out))) {
+            pipeline.run(input, output);
+        }
+        putCodedSummary(System.nanoTime() - start, Files.size(in), pipeline.getStatistics());
+        summary.put("residualBitErrors", countBitErrors(in, out));
+    }
+
+    /**
+     * Paveiksliuko spalvos (mėlyna, žalia, raudona - kaip ir trečiajame scenarijuje) siunčiamos kanalu, o gautas
+     * paveiksliukas įrašomas į failą, kurio formatas parenkamas pagal plėtinį (pvz., „png“ ar „bmp“). Tokie
+     * formatai įrašomi tik visi iš karto, todėl visas paveiksliukas laikomas atmintyje; kai nurodytas --uncoded-out,
+     * abu siuntimai vyksta vienu perėjimu („ComparisonPipeline“).
+     */
+    private void runImage() throws IOException {
+        String out = require("--out").toLowerCase(Locale.ROOT);
+        if(out.endsWith(".tif") || out.endsWith(".tiff")) {
+            runTiledImage();
+            return;
+        }
+        BufferedImage image = ImageIO.read(Path.of(require("--in")).toFile());
+        if(image == null) throw new IllegalArgumentException("Nepavyko perskaityti paveiksliuko: " + options.get("--in"));
+        byte[] pixels = toBgrBytes(image);
+        summary.put("inputBytes", pixels.length);
+        summary.put("width", image.getWidth());
+        summary.put("height", image.getHeight());
+        ByteArrayOutputStream coded = new ByteArrayOutputStream(pixels.length);
+        if(options.containsKey("--uncoded-out")) {
+            ByteArrayOutputStream uncoded = new ByteArrayOutputStream(pixels.length);
+            compare(new ByteArrayInputStream(pixels), uncoded, coded);
+            byte[] received = uncoded.toByteArray();
+            summary.put("uncodedQuality", toSummary(measureQuality(pixels, received, image.getWidth())));
+            writeImage(received, image.getWidth(), image.getHeight(), Path.of(options.get("--uncoded-out")));
+        }
+        else {
+            StreamingPipeline pipeline = new StreamingPipeline(codeData, channel, decoder);
+            long start = System.nanoTime();
+            pipeline.run(new ByteArrayInputStream(pixels), coded);
+            putCodedSummary(System.nanoTime() - start, pixels.length, pipeline.getStatistics());
+            summary.put("residualBitErrors", countBitErrors(pixels, coded.toByteArray()));
+        }
+        byte[] received = coded.toByteArray();
+        summary.put("quality", toSummary(measureQuality(pixels, received, image.getWidth())));
+        writeImage(received, image.getWidth(), image.getHeight(), Path.of(require("--out")));
+    }
+
+    /**
+     * Gauti BGR baitai palyginami su siųstais eilutė po eilutės, kad reikšmių masyvai būtų tik vienos eilutės
+     * dydžio. Juostos - mėlyna, žalia ir raudona.
+     */
+    private static ImageQuality measureQuality(byte[] sent, byte[] received, int width) {
+        ImageQuality quality = new ImageQuality(new int[] {Byte.SIZE, Byte.SIZE, Byte.SIZE});
+        int rowBytes = width * 3;
+        int[] sentSamples = new int[rowBytes];
+        int[] receivedSamples = new int[rowBytes];
+        for(int offset = 0; offset < sent.length; offset += rowBytes) {
+            byte[] sentRow = Arrays.copyOfRange(sent, offset, offset + rowBytes);
+            byte[] receivedRow = Arrays.copyOfRange(received, offset, offset + rowBytes); // Trūkstami baitai - nuliai.
+            for(int i = 0; i < rowBytes; i++) {
+                sentSamples[i] = sentRow[i] & 0xff;
+                receivedSamples[i] = receivedRow[i] & 0xff;
+            }
+            quality.add(sentSamples, receivedSamples, sentRow, receivedRow);
+        }
+        return quality;
+    }
+
+    /**
+     * Įvestis nusiunčiama be kodo ir su kodu vienu perėjimu; trukmė apima abu siuntimus.
+     */
+    private void compare(InputStream input, OutputStream uncoded, OutputStream coded) throws IOException {
+        ComparisonPipeline pipeline = new ComparisonPipeline(codeData, channel, decoder);
+        long start = System.nanoTime();
+        pipeline.run(input, uncoded, coded);
+        putCodedSummary(System.nanoTime() - start, pipeline.getBytes(), pipeline.getStatistics());
+        summary.put("uncodedBitErrors", pipeline.getUncodedBitErrors());
+        summary.put("residualBitErrors", pipeline.getCodedBitErrors());
+    }
+
+    /**
+     * Paveiksliukas siunčiamas juostomis („TiledImagePipeline“): siunčiamos faile saugomos reikšmės (bet kokio tipo
+     * paveiksliukui), o rezultatai įrašomi TIFF formatu. Kiekviena juosta siunčiama savo kanalu su tuo pačiu klaidų
+     * modeliu; kai nurodytas --channel-seed, juostos kanalo sėkla yra ši sėkla plius juostos numeris, todėl
+     * rezultatas nepriklauso nuo gijų skaičiaus. Įrašant ar atkuriant klaidų seką naudojamas vienas kanalas ir
+     * viena gija.
+     */
+    private void runTiledImage() throws IOException {
+        boolean sharedChannel = !channel.isSplittable();
+        int threads = sharedChannel ? 1 : Integer.parseInt(options.getOrDefault("--threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        if(threads <= 0) throw new IllegalArgumentException("Turi būti --threads > 0.");
+        IntFunction<Channel> channels;
+        if(sharedChannel) channels = strip -> channel;
+        else if(options.containsKey("--channel-seed")) {
+            long seed = Long.parseLong(options.get("--channel-seed"));
+            channels = strip -> channel.split(new Random(seed + strip));
+        }
+        else channels = strip -> channel.split(new Random());
+        Path uncodedOut = options.containsKey("--uncoded-out") ? Path.of(options.get("--uncoded-out"))
+                : Files.createTempFile("uncoded", ".tif");
+        TiledImagePipeline pipeline = new TiledImagePipeline(codeData, decoder, channels, threads);
+        long start = System.nanoTime();
+        try {
+            pipeline.run(Path.of(require("--in")), uncodedOut, Path.of(require("--out")));
+        } finally {
+            if(!options.containsKey("--uncoded-out")) Files.deleteIfExists(uncodedOut);
+        }
+        summary.put("inputBytes", pipeline.getBytes());
+        summary.put("width", pipeline.getWidth());
+        summary.put("height", pipeline.getHeight());
+        summary.put("threads", threads);
+        putCodedSummary(System.nanoTime() - start, pipeline.getBytes(), pipeline.getStatistics());
+        if(options.containsKey("--uncoded-out")) {
+            summary.put("uncodedBitErrors", pipeline.getUncodedBitErrors());
+            summary.put("uncodedQuality", toSummary(pipeline.getUncodedQuality()));
+        }
+        summary.put("residualBitErrors", pipeline.getCodedBitErrors());
+        summary.put("quality", toSummary(pipeline.getCodedQuality()));
+    }
+
+    /**
+     * Paveiksliuko kokybės rodikliai santraukai: bendri klaidų skaičiai ir kiekvienos juostos PSNR bei klaidos.
+     * Kai juostoje klaidų nėra, PSNR begalinė ir įrašoma kaip null.
+     */
+    private static Map<String, Object> toSummary(ImageQuality quality) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("pixels", quality.getPixels());
+        values.put("pixelErrors", quality.getPixelErrors());
+        values.put("bytes", quality.getBytes());
+        values.put("byteErrors", quality.getByteErrors());
+        values.put("bitErrors", quality.getBitErrors());
+        List<Map<String, Object>> bands = new ArrayList<>();
+        for(int band = 0; band < quality.getBandCount(); band++) {
+            Map<String, Object> bandValues = new LinkedHashMap<>();
+            double psnr = quality.getPsnr(band);
+            bandValues.put("psnr", Double.isInfinite(psnr) ? null : round(psnr));
+            bandValues.put("sampleErrors", quality.getSampleErrors(band));
+            bandValues.put("bitErrors", quality.getBitErrors(band));
+            bands.add(bandValues);
+        }
+        values.put("bands", bands);
+        return values;
+    }
+
+    /**
+     * Keli kodai palyginami vienu perėjimu per tą patį klaidų srautą („MultiCodeComparison“). Kiekvienam kodui
+     * santraukoje pateikiama neištaisytų bitų dalis, sparta ir dekodavimo kaina; pirmas įrašas - siuntimas be kodo.
+     */
+    private void runComparison() throws IOException {
+        if(options.containsKey("--record") || options.containsKey("--replay")) { // Kiekvienas kodas turi savo kanalą.
+            throw new IllegalArgumentException("4 scenarijuje --record ir --replay negalimi.");
+        }
+        summary.put("scenario", "4");
+        double errorChance = readErrorChance();
+        summary.put("p", errorChance);
+        List<CodeData> codes = new ArrayList<>();
+        for(String code : require("--codes").split(",")) {
+            String[] parts = code.trim().split(":");
+            if(parts.length != 3) throw new IllegalArgumentException("Kodas nurodomas kaip k:n:matricos_sėkla: " + code);
+            int k = Integer.parseInt(parts[0]);
+            int n = Integer.parseInt(parts[1]);
+            if(k <= 0 || n < k) throw new IllegalArgumentException("Turi būti 0 < k <= n: " + code);
+            codes.add(new CodeData(k, n, CodeMath.generateMatrix(k, n - k, new Random(Long.parseLong(parts[2]))),
+                    errorChance));
+        }
+        long seed = options.containsKey("--channel-seed") ? Long.parseLong(options.get("--channel-seed"))
+                : new Random().nextLong();
+        SplittableErrorModel model = ErrorModel.parse(options.getOrDefault("--channel", "bsc"), errorChance, new Random(seed));
+        summary.put("channel", options.getOrDefault("--channel", "bsc"));
+        summary.put("channelErrorChance", model.getErrorChance());
+        int maxWeight = 0;
+        if(codes.stream().anyMatch(DecoderFactory::needsMaxWeight)) { // Kaip ir vienam kodui, t būtinas.
+            maxWeight = Integer.parseInt(require("--t"));
+            summary.put("t", maxWeight);
+        }
+        long start = System.nanoTime();
+        MultiCodeComparison comparison = new MultiCodeComparison(codes, model, seed, maxWeight);
+        summary.put("tableBuildMs", millis(System.nanoTime() - start));
+        start = System.nanoTime();
+        try(InputStream input = new BufferedInputStream(Files.newInputStream(Path.of(require("--in"))))) {
+            comparison.run(input);
+        }
+        summary.put("elapsedMs", millis(System.nanoTime() - start));
+        summary.put("inputBytes", comparison.getBytes());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(toSummary(comparison.getUncoded()));
+        for(MultiCodeComparison.Row row : comparison.getRows()) rows.add(toSummary(row));
+        summary.put("codes", rows);
+    }
+
+    private static Map<String, Object> toSummary(MultiCodeComparison.Row row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("code", row.getName());
+        if(row.getCodeData() != null) {
+            values.put("k", row.getCodeData().getK());
+            values.put("n", row.getCodeData().getN());
+        }
+        values.put("rate", round(row.getRate()));
+        values.put("residualBitErrors", row.getBitErrors());
+        values.put("residualBitErrorRate", row.getBitErrorRate());
+        values.put("megabytesPerSecond", round(row.getMegabytesPerSecond()));
+        if(row.getCodeData() != null) {
+            values.put("tableBuildMs", round(row.getBuildMillis()));
+            values.put("decodedWords", row.getStatistics().getDecodedWords());
+            values.put("decodeFailures", row.getStatistics().getFailures());
+            values.put("averageDecodeMicros", round(row.getAverageDecodeMicros()));
+            values.put("averageTriedPositions", round(row.getStatistics().getAverageTriedPositions()));
+        }
+        return values;
+    }
+
+    private void putCodedSummary(long nanos, long bytes, DecodeStatistics statistics) {
+        summary.put("elapsedMs", millis(nanos));
+        summary.put("megabytesPerSecond", round(nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9)));
+        summary.put("decodedWords", statistics.getDecodedWords());
+        summary.put("decodeFailures", statistics.getFailures());
+        summary.put("averageTriedPositions", round(statistics.getAverageTriedPositions()));
+        summary.put("maxTriedPositions", statistics.getMaxTriedPositions());
+    }
+
+    private static byte[] toBgrBytes(BufferedImage image) {
+        byte[] pixels = new byte[image.getWidth() * image.getHeight() * 3];
+        int m = 0;
+        for(int y = 0; y < image.getHeight(); y++) {
+            for(int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                pixels[m++] = (byte) rgb; // Mėlyna.
+                pixels[m++] = (byte) (rgb >>> 8); // Žalia.
+                pixels[m++] = (byte) (rgb >>> 16); // Raudona.
+            }
+        }
+        return pixels;
+    }
+
+    private static void writeImage(byte[] pixels, int width, int height, Path path) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int m = 0;
+        for(int y = 0; y < height; y++) {
+            for(int x = 0; x < width; x++) {
+                int blue = pixels[m++] & 0xff;
+                int green = pixels[m++] & 0xff;
+                int red = pixels[m++] & 0xff;
+                image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+            }
+        }
+        String name = path.getFileName().toString();
+        String format = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "png";
+        if(!ImageIO.write(image, format, path.toFile())) {
+            throw new IllegalArgumentException("Nežinomas paveiksliuko formatas: " + format);
+        }
+    }
+
+    private static long countBitErrors(Path expected, Path actual) throws IOException {
+        long errors = 0;
+        try(InputStream first = new BufferedInputStream(Files.newInputStream(expected));
+            InputStream second = new BufferedInputStream(Files.newInputStream(actual))) {
+            int a;
+            while((a = first.read()) >= 0) {
+                int b = second.read();
+                errors += b < 0 ? 8 : Integer.bitCount(a ^ b);
+            }
+        }
+        return errors;
+    }
+
+    private static long countBitErrors(byte[] expected, byte[] actual) {
+        long errors = 0;
+        for(int i = 0; i < expected.length; i++) {
+            errors += i < actual.length ? Integer.bitCount((expected[i] ^ actual[i]) & 0xff) : 8;
+        }
+        return errors;
+    }
+
+    private String require(String flag) {
+        String value = options.get(flag);
+        if(value == null) throw new IllegalArgumentException("Trūksta argumento " + flag + ".");
+        return value;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    /**
+     * Trukmės ir vidurkiai apvalinami iki tūkstantųjų, o klaidos tikimybė paliekama tokia, kokia nurodyta.
+     */
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private String toJson() {
+        StringBuilder json = new StringBuilder();
+        appendJson(json, summary);
+        return json.toString();
+    }
+
+    /**
+     * Reikšmė įrašoma JSON formatu: eilutės kabutėse, sąrašai ir įdėtos santraukos (pvz., 4 scenarijaus kodų
+     * lentelė) - rekursyviai, o skaičiai ir loginės reikšmės - kaip yra.
+     */
+    private static void appendJson(StringBuilder json, Object value) {
+        if(value instanceof String) json.append('"').append(value).append('"');
+        else if(value instanceof Map) {
+            json.append('{');
+            String separator = "";
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                json.append(separator).append('"').append(entry.getKey()).append("\": ");
+                appendJson(json, entry.getValue());
+                separator = ", ";
+            }
+            json.append('}');
+        }
+        else if(value instanceof List) {
+            json.append('[');
+            String separator = "";
+            for(Object element : (List<?>) value) {
+                json.append(separator);
+                appendJson(json, element);
+                separator = ", ";
+            }
+            json.append(']');
+        }
+        else json.append(value);
+    }
+
+    /**
+     * Argumentai skaitomi poromis „--vardas reikšmė“.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for(int i = 0; i < args.length; i++) {
+            if(!FLAGS.contains(args[i]) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Nežinomas arba neužbaigtas argumentas: " + args[i]);
+            }
+            options.put(args[i], args[++i]);
+        }
+        return options;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Metrics.initializeEvents();
+        try {
+            Map<String, String> options = parseOptions(args);
+            if(options.containsKey("--metrics")) Metrics.dumpOnExit(Path.of(options.get("--metrics")));
+            System.out.println(new BatchRunner(options).run());
+        } catch(IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Programa baigia darbą.");
+            System.exit(1);
+        } catch(IOException e) {
+            e.printStackTrace();
+            System.out.println("Nepavyko perskaityti ar įrašyti failo. Programa baigia darbą.");
+            System.exit(1);
+        }
+    }
+
+}
@@ -1,9 +1,12 @@
 package main;
 
+import analysis.MatrixSearch;
 import data.CodeData;
+import decoders.CodePreset;
 import utils.CodeMath;
 import utils.TextUtils;
 import java.util.Arrays;
+import java.util.Random;
 import java.util.Scanner;
 
 /**
@@ -12,6 +15,11 @@ import java.util.Scanner;
 
 public class Input {
 
+    private static final int SEARCH_MAX_CANDIDATES = 100000; // Kiek daugiausiai matricų patikrinama ieškant geros.
+    private static final long SEARCH_TIME_LIMIT_MILLIS = 5000; // Kiek daugiausiai laiko skiriama paieškai.
+    private static final int SEARCH_MAX_K = 24; // Didesniems k vieno kandidato įvertinimas per ilgas.
+    private static final int SPARSE_ROW_WEIGHT = 3; // Kiek vienetų kiekvienoje retos matricos eilutėje.
+
     private final Scanner input;
 
     public Input(Scanner scanner) {
@@ -21,9 +29,53 @@ public class Input {
     public CodeData readCodeData() {
         int k = readK();
         int n = readN(k);
-        int[][] matrix = readMatrix(k, n-k);
+        int[][] rows = readMatrix(k, n-k);
         double errorChance = readErrorChance();
-        return new CodeData(k, n, matrix, errorChance);
+        return CodeData.fromSparseRows(k, n, rows, errorChance);
+    }
+
+    /**
+     * Vartotojas gali pasirinkti žinomą kodą, kuris dekoduojamas be sindromų lentelės. Tada k, n ir matricos
+     * įvesti nereikia, nuskaitoma tik klaidos tikimybė.
+     * @return      grąžina pasirinktą kodą arba null, jeigu vartotojas nori įvesti savo kodą.
+     */
+    public CodePreset readPreset() {
+        System.out.println("Jei norite naudoti žinomą kodą, įveskite jo pavadinimą: „hamming r“ (Hamingo kodas, " +
+                CodePreset.MIN_HAMMING_R + " <= r <= " + CodePreset.MAX_HAMMING_R + "), „ehamming r“ (išplėstinis " +
+                "Hamingo kodas), „golay23“ arba „golay24“ (Golėjaus kodai). Jei norite įvesti savo kodą, spauskite „Enter“:");
+        while(true) {
+            String description = input.nextLine();
+            if(description.isBlank()) return null;
+            try {
+                CodePreset.validate(description); // Patikrinama prieš klausiant tikimybės.
+                CodePreset preset = CodePreset.parse(description, readErrorChance());
+                System.out.println("Pasirinktas " + preset + ".");
+                return preset;
+            } catch(IllegalArgumentException e) {
+                System.out.println(e.getMessage() + " Įveskite kodo pavadinimą dar kartą arba spauskite „Enter“:");
+            }
+        }
+    }
+
+    /**
+     * Nuskaitomas didžiausias klaidų vektorių svoris t, iki kurio bus sudaroma ribota sindromų lentelė.
+     * @param n     kodo žodžio ilgis (t negali jo viršyti).
+     * @return      grąžina reikalavimus atitinkantį svorį t.
+     */
+    public int readMaxErrorWeight(int n) {
+        System.out.println("Kodas per ilgas pilnai sindromų lentelei. Prašome įvesti didžiausią taisomų klaidų skaičių t " +
+                "(lentelėje bus tik klaidų vektoriai, kurių svoris ne didesnis nei t):");
+        int maxWeight = -1;
+        while(maxWeight < 0 || maxWeight > n) {
+            String value = input.nextLine();
+            try {
+                maxWeight = Integer.parseInt(value);
+                if(maxWeight < 0 || maxWeight > n) maxErrorWeightIsWrong(n);
+            } catch(Exception e) {
+                maxErrorWeightIsWrong(n);
+            }
+        }
+        return maxWeight;
     }
 
     /**
@@ -66,28 +118,51 @@ public class Input {
     }
 
     /**
-     * Vartotojui leidžiama pasirinkti įvesti matricą arba leisti programai ją sugeneruoti. Priklausomai nuo vartotojo
-     * įvesties duodamas nurodymas sugeneruoti arba
+     * Vartotojui leidžiama pasirinkti įvesti matricą, leisti programai ją sugeneruoti arba leisti programai ieškoti
+     * geros matricos. Priklausomai nuo vartotojo įvesties duodamas nurodymas sugeneruoti, surasti arba
      * nuskaityti matricą be vienetinės dalies (programa taupo atmintį ir vienetinės dalies nesaugo).
      * @param rows      kodo dimensija.
      * @param columns   kodo žodžio ilgio ir kodo dimensijos skirtumas (kadangi nėra vienetinės dalies, matrica gaunasi mažesnė).
-     * @return          grąžina reikalavimus atitinkančią matricą be vienetinės dalies.
+     * @return          grąžina reikalavimus atitinkančią matricą be vienetinės dalies retuoju pavidalu (kiekvienai
+     *                  eilutei - vienetų stulpeliai), kad reta matrica ilgam kodui nebūtų sudaroma visa.
      */
     private int[][] readMatrix(int rows, int columns) {
-        System.out.println("Rašykite „taip“, jei norite pats įvesti generuojančią matricą, kitu atveju, ji bus sugeneruota automatiškai.");
+        System.out.println("Rašykite „taip“, jei norite pats įvesti generuojančią matricą, „ieškoti“, jei norite, kad " +
+                "programa ieškotų matricos su kuo didesniu minimaliu atstumu, „reta“, jei norite retos matricos " +
+                "(tinka ilgiems kodams), kitu atveju, ji bus sugeneruota automatiškai.");
         String answer = input.nextLine();
         answer = answer.toLowerCase();
         if(answer.startsWith("taip")) {
             printMatrixEnterRules(rows, columns);
-            return readUserMatrixInput(rows, columns);
+            return CodeMath.sparseRows(readUserMatrixInput(rows, columns));
+        }
+        else if(answer.startsWith("ieškoti") && rows <= SEARCH_MAX_K && rows + columns <= Long.SIZE) {
+            MatrixSearch.Candidate best = new MatrixSearch(rows, rows + columns,
+                    SEARCH_MAX_CANDIDATES, SEARCH_TIME_LIMIT_MILLIS).search();
+            System.out.println("Programa surado matricą, kurios kodo minimalus atstumas " + best.getMinimumDistance() +
+                    " (tokio svorio kodo žodžių: " + best.getMinimumWeightCount() + "). Vienetinė dalis nerodoma:");
+            printMatrix(best.getMatrix());
+            return CodeMath.sparseRows(best.getMatrix());
+        }
+        else if(answer.startsWith("reta")) {
+            int weight = Math.min(SPARSE_ROW_WEIGHT, columns);
+            System.out.println("Programa sugeneravo retą matricą: kiekvienoje eilutėje " + weight + " vienetai.");
+            return CodeMath.generateSparseRows(rows, columns, weight, new Random());
         }
         else {
+            if(answer.startsWith("ieškoti")) {
+                System.out.println("Matricos paieška galima tik kai k <= " + SEARCH_MAX_K + " ir n <= " + Long.SIZE + ".");
+            }
             System.out.println("Programa sugeneravo matricą (vienetinė dalis nerodoma): ");
             int[][] matrix = CodeMath.generateMatrix(rows, columns);
-            for (int[] ints : matrix) {
-                System.out.println(Arrays.toString(ints));
-            }
-            return matrix;
+            printMatrix(matrix);
+            return CodeMath.sparseRows(matrix);
+        }
+    }
+
+    private void printMatrix(int[][] matrix) {
+        for (int[] ints : matrix) {
+            System.out.println(Arrays.toString(ints));
         }
     }
 
@@ -152,6 +227,10 @@ public class Input {
                 "Jūsų atveju k = " + rows + ", n-k = " + columns + "):");
     }
 
+    private void maxErrorWeightIsWrong(int n) {
+        System.out.println("Klaidų skaičius t turi būti sveikasis skaičius nuo 0 iki " + n + ":");
+    }
+
     private void nIsWrong(int k) {
         System.out.println("Vektoriaus ilgis n turi būti sveikasis skaičius, didesnis už 0 ir nemažesnis už dimensiją k (kuri lygi: " + k + "):");
     }
@@ -1,32 +1,187 @@
 package main;
 
+import analysis.WeightDistribution;
+import channels.Channel;
+import channels.ErrorModel;
+import channels.RecordingChannel;
+import channels.ReplayChannel;
+import data.BackgroundSyndromeTable;
 import data.CodeData;
-import data.SyndromeTable;
+import decoders.CodePreset;
+import decoders.Decoder;
+import decoders.DecoderFactory;
+import decoders.MeteredDecoder;
+import decoders.StepByStepDecoder;
+import metrics.Metrics;
+import pipeline.StreamingPipeline;
 import scenarios.FirstScenario;
 import scenarios.SecondScenario;
 import scenarios.ThirdScenario;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 import java.util.Scanner;
 
 public class Main {
 
+    private static final int WEIGHT_DISTRIBUTION_MAX_K = 26; // Iki kokios dimensijos svorių skirstinys spausdinamas iškart.
+
     private final Scanner scanner = new Scanner(System.in);
     private CodeData codeData;
-    private SyndromeTable syndromeTable;
+    private Decoder decoder;
+    private BackgroundSyndromeTable syndromeTable;
+    private Channel channel;
+    private String recordPath;
+    private String replayPath;
+    private String channelModel = "bsc";
+    private String streamInputPath;
+    private String streamOutputPath;
 
-    public Main() {
+    public Main(String[] args) {
+        readArguments(args);
         inputData();
-        chooseScenario();
+        createChannel();
+        if(streamInputPath != null) streamFile();
+        else chooseScenario();
+        if(syndromeTable != null) syndromeTable.cancel(); // Jeigu scenarijus lentelės taip ir nepanaudojo, sudarymas nutraukiamas.
+        channel.close();
         scanner.close();
     }
 
+    /**
+     * Nuskaitomi programos paleidimo argumentai. Paleidus programą su „--record failas“, kanalo klaidos įrašomos
+     * į failą, o su „--replay failas“ - atkuriamos iš anksčiau įrašyto failo (tada klaidos tikimybė imama iš failo).
+     * Abiejų kartu nurodyti negalima.
+     * Su „--channel modelis“ parenkamas kanalo klaidų modelis: „bsc“ (numatytasis, kanalas be atminties),
+     * „ge:pGB:pBG:eG:eB“ (Gilberto-Elioto) arba „burst:L“ (L ilgio pliūpsniai, vidutinė tikimybė - įvestoji).
+     * Nurodžius „--metrics failas“, programai baigiant darbą į failą įrašomi jos veikimo rodikliai (JSON).
+     * Nurodžius „--stream įvestis išvestis“, scenarijus nerenkamas, o įvesties failas srautu užkoduojamas,
+     * siunčiamas kanalu, dekoduojamas ir įrašomas į išvesties failą.
+     * @param args      programos paleidimo argumentai.
+     */
+    private void readArguments(String[] args) {
+        for(int i = 0; i < args.length; i++) {
+            boolean hasValue = i + 1 < args.length;
+            if(args[i].equals("--record") && hasValue) recordPath = args[++i];
+            else if(args[i].equals("--replay") && hasValue) replayPath = args[++i];
+            else if(args[i].equals("--channel") && hasValue) channelModel = args[++i];
+            else if(args[i].equals("--metrics") && hasValue) Metrics.dumpOnExit(Path.of(args[++i]));
+            else if(args[i].equals("--stream") && i + 2 < args.length) {
+                streamInputPath = args[++i];
+                streamOutputPath = args[++i];
+            }
+            else System.out.println("Nežinomas argumentas praleidžiamas: " + args[i]);
+        }
+        if(recordPath != null && replayPath != null) {
+            System.out.println("Negalima kartu nurodyti „--record“ ir „--replay“. Programa baigia darbą.");
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Sukuriamas kanalas: įprastas, įrašantis klaidas į failą arba atkuriantis jas iš failo.
+     * Kanalas uždaromas ir programai baigiantis bet kuriuo būdu (pvz., "System.exit" ar neapdorota klaida), kad
+     * įrašomas klaidų failas visada būtų užbaigtas.
+     */
+    private void createChannel() {
+        try {
+            ErrorModel model = null;
+            if(replayPath == null) {
+                model = ErrorModel.parse(channelModel, codeData.getErrorChance(), new Random());
+                if(!channelModel.equals("bsc")) {
+                    System.out.println("Kanalo klaidų modelis: " + channelModel + " (vidutinė klaidos tikimybė: " +
+                            model.getErrorChance() + ").");
+                }
+            }
+            if(recordPath != null) {
+                channel = new RecordingChannel(model, Path.of(recordPath));
+                System.out.println("Kanalo klaidos bus įrašytos į failą: " + recordPath);
+            }
+            else if(replayPath != null) {
+                channel = new ReplayChannel(Path.of(replayPath));
+                System.out.println("Kanalo klaidos bus atkuriamos iš failo: " + replayPath +
+                        " (klaidos tikimybė: " + channel.getErrorChance() + ").");
+            }
+            else {
+                channel = new Channel(model);
+            }
+            Channel created = channel;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::close, "channel-close"));
+        } catch(IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Programa baigia darbą.");
+            System.exit(0);
+        } catch(IOException e) {
+            e.printStackTrace();
+            System.out.println("Nepavyko atidaryti kanalo klaidų failo. Programa baigia darbą.");
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Failas perleidžiamas per srautinę kodavimo grandinę: skaitymas, kodavimas, siuntimas, dekodavimas ir
+     * rašymas vyksta vienu metu, todėl ir labai dideli failai neužima daug atminties.
+     */
+    private void streamFile() {
+        System.out.println("Failas " + streamInputPath + " užkoduojamas, siunčiamas kanalu ir dekoduojamas į " +
+                streamOutputPath + ".");
+        StreamingPipeline pipeline = new StreamingPipeline(codeData, channel, decoder);
+        long start = System.nanoTime();
+        try(InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(streamInputPath)));
+            OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(streamOutputPath)))) {
+            pipeline.run(in, out);
+        } catch(IOException e) {
+            e.printStackTrace();
+            System.out.println("Nepavyko perskaityti ar įrašyti failo. Programa baigia darbą.");
+            System.exit(0);
+        }
+        System.out.println("Užtruko " + (System.nanoTime() - start) / 1_000_000 + " ms. " + pipeline.getStatistics());
+    }
+
     /**
      * Gaunami pradiniai duomenys ir pagal juos sugeneruojami papildomi, reikalingi koduoti ir atkoduoti pranešimus.
+     * Kai n-k per didelis pilnai sindromų lentelei, sudaroma ribota lentelė tik iki t svorio klaidų vektoriams.
+     * Lentelė (kartu su visu kodo kontekstu „CodeContext“) sudaroma fone, kol skaičiuojamas svorių skirstinys ir
+     * vartotojas renkasi scenarijų, ir jos laukiama tik pirmą kartą dekoduojant.
+     * Pasirinkus žinomą kodą, lentelė nesudaroma - naudojamas tam kodui skirtas dekoderis. Kai n-k didesnis nei 64,
+     * lentelė irgi nesudaroma - dekoduojama keičiant bitus pagal retą kontrolinę matricą.
      */
     private void inputData() {
         Input input = new Input(scanner);
+        CodePreset preset = input.readPreset();
+        if(preset != null) {
+            codeData = preset.getCodeData();
+            printWeightDistribution();
+            decoder = new MeteredDecoder(preset.getDecoder());
+            return;
+        }
         codeData = input.readCodeData();
-        syndromeTable = new SyndromeTable(codeData);
+        if(DecoderFactory.usesBitFlipping(codeData)) {
+            System.out.println("Kai n-k didesnis nei " + Long.SIZE + ", sindromų lentelės sudaryti neįmanoma, todėl " +
+                    "dekoduojama keičiant bitus (geriausiai tinka reta matrica).");
+            decoder = new MeteredDecoder(DecoderFactory.create(codeData, 0));
+            printWeightDistribution();
+            return;
+        }
+        int maxWeight = DecoderFactory.needsMaxWeight(codeData) ? input.readMaxErrorWeight(codeData.getN()) : 0;
+        syndromeTable = new BackgroundSyndromeTable(progress -> DecoderFactory.createContext(codeData, maxWeight, progress));
+        decoder = new MeteredDecoder(new StepByStepDecoder(syndromeTable, codeData));
+        printWeightDistribution(); // Lentelė jau sudaroma fone, todėl skirstinys skaičiuojamas tuo pačiu metu.
+    }
+
+    /**
+     * Jeigu kodas nedidelis, išspausdinamas jo minimalus atstumas ir svorių skirstinys, kad vartotojas matytų,
+     * kiek klaidų pasirinktas kodas gali ištaisyti.
+     */
+    private void printWeightDistribution() {
+        if(codeData.getK() <= WEIGHT_DISTRIBUTION_MAX_K && codeData.getN() <= Long.SIZE) {
+            System.out.println(WeightDistribution.calculate(codeData));
+        }
     }
 
     /**
@@ -41,13 +196,13 @@ public class Main {
                 " užkodavus jas ir neužkodavus jų ir parodo skirtumą tarp paveiksliukų.");
         int scenarioNumber = readNumber();
         if(scenarioNumber == 1) {
-            new FirstScenario(codeData, syndromeTable, scanner).start();
+            new FirstScenario(codeData, decoder, channel, scanner).start();
         }
         else if(scenarioNumber == 2) {
-            new SecondScenario(codeData, syndromeTable, scanner).start();
+            new SecondScenario(codeData, decoder, channel, scanner).start();
         }
         else if(scenarioNumber == 3) {
-            new ThirdScenario(codeData, syndromeTable, scanner).start();
+            new ThirdScenario(codeData, decoder, channel, scanner).start();
         }
 
     }
@@ -78,7 +233,8 @@ public class Main {
     }
 
     public static void main(String[] args) {
-        new Main();
+        Metrics.initializeEvents();
+        new Main(args);
     }
 
 }
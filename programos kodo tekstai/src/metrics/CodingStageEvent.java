@@ -0,0 +1,53 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR įvykis, žymintis vieną kodavimo grandinės etapą: skaidymą į vektorius, užkodavimą, siuntimą kanalu,
+ * dekodavimą arba surinkimą atgal į baitus. Etapai vykdomi pakaitomis kiekvienam vektoriui, todėl įvykis neapima
+ * etapo laiko intervalo, o nurodo sukauptą etapo trukmę visiems dalies vektoriams.
+ */
+@Name("codetheory.CodingStage")
+@Label("Kodavimo etapas")
+@Category({"Kodavimo teorija", "Kodavimas"})
+@StackTrace(false)
+public class CodingStageEvent extends Event {
+
+    @Label("Etapas")
+    public String stage;
+
+    @Label("k")
+    public int k;
+
+    @Label("n")
+    public int n;
+
+    @Label("Vektorių skaičius")
+    public long vectorCount;
+
+    @Label("Sukaupta etapo trukmė")
+    @Timespan(Timespan.NANOSECONDS)
+    public long stageNanos;
+
+    public CodingStageEvent(String stage, int k, int n, long vectorCount, long stageNanos) {
+        this.stage = stage;
+        this.k = k;
+        this.n = n;
+        this.vectorCount = vectorCount;
+        this.stageNanos = stageNanos;
+    }
+
+    /**
+     * Įrašomas etapo įvykis, jeigu JFR jį renka.
+     */
+    public static void emit(String stage, int k, int n, long vectorCount, long stageNanos) {
+        CodingStageEvent event = new CodingStageEvent(stage, k, n, vectorCount, stageNanos);
+        if(event.shouldCommit()) event.commit();
+    }
+
+}
@@ -0,0 +1,34 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR įvykis, žymintis teksto ar paveiksliuko konvertavimą į bitų seką arba atgal.
+ */
+@Name("codetheory.Conversion")
+@Label("Duomenų konvertavimas")
+@Category({"Kodavimo teorija", "Scenarijai"})
+@StackTrace(false)
+public class ConversionEvent extends Event {
+
+    @Label("Scenarijus")
+    public int scenario;
+
+    @Label("Kryptis")
+    public String direction;
+
+    @Label("Apdorota baitų")
+    @DataAmount
+    public long bytesProcessed;
+
+    public ConversionEvent(int scenario, String direction) {
+        this.scenario = scenario;
+        this.direction = direction;
+    }
+
+}
@@ -0,0 +1,87 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trukmių (ar kitų neneigiamų dydžių) histograma, panaši į HDR histogramą: reikšmės skirstomos į logaritminius
+ * intervalus, kurių kiekvienas padalytas į SUB_BUCKETS lygių dalių. Taip santykinė paklaida visada mažesnė nei
+ * 1/SUB_BUCKETS, o atmintis nepriklauso nuo įrašytų reikšmių skaičiaus. Įrašymas nesinchronizuojamas
+ * (naudojami atominiai skaitliukai), todėl histogramą gali pildyti daug gijų vienu metu.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Įrašoma reikšmė (neigiamos reikšmės laikomos nuliu).
+     * @param value     įrašoma reikšmė.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Mažos reikšmės (iki SUB_BUCKETS) turi atskirus intervalus, didesnės - pagal aukščiausią bitą ir
+     * SUB_BUCKET_BITS po jo einančius bitus.
+     */
+    private static int bucketIndex(long value) {
+        if(value < SUB_BUCKETS) return (int) value;
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // Kiek žemų bitų numetama.
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return      grąžina didžiausią reikšmę, kuri patenka į nurodytą intervalą.
+     */
+    private static long bucketUpperBound(int index) {
+        if(index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    /**
+     * @param percentile    procentilis (nuo 0 iki 100).
+     * @return              grąžina reikšmę, už kurią ne didesnės nurodyta dalis įrašytų reikšmių
+     *                      (tikslumu iki intervalo).
+     */
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if(total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if(seen >= target) return Math.min(bucketUpperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+}
@@ -0,0 +1,156 @@
+package metrics;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Programos veikimo rodiklių registras: skaitliukai ("LongAdder", kurie paskirsto įrašymą tarp gijų, todėl
+ * beveik nestabdo) ir trukmių histogramos. Rodikliai kaupiami visą programos veikimo laiką, o juos galima
+ * bet kada gauti JSON formatu, įrašyti į failą pagal komandą arba nurodyti, kad programai baigiant darbą jie būtų
+ * įrašyti į failą.
+ * Klasė naudoja statinius metodus, kad rodiklius būtų galima pildyti iš bet kurios programos vietos.
+ */
+public class Metrics {
+
+    // Skaitliukų pavadinimai.
+    public static final String WORDS_ENCODED = "words.encoded";
+    public static final String WORDS_DECODED = "words.decoded";
+    public static final String DECODE_FAILURES = "decode.failures";
+    public static final String CHANNEL_BITS = "channel.bits";
+    public static final String CHANNEL_BITS_FLIPPED = "channel.bitsFlipped";
+
+    // Histogramų pavadinimai.
+    public static final String TABLE_BUILD_NANOS = "table.buildNanos";
+    public static final String DECODE_NANOS = "decode.nanos";
+    public static final String DECODE_ITERATIONS = "decode.triedPositions";
+
+    public static final String DUMP_COMMAND = "metrics"; // Komanda, kuria rodikliai įrašomi į failą.
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(CodingStageEvent.class,
+            ConversionEvent.class, ScenarioPhaseEvent.class, SyndromeTableBuildEvent.class);
+    private static final long START_NANOS = System.nanoTime();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @param name      skaitliuko pavadinimas.
+     * @return          grąžina skaitliuką (sukuria, jeigu jo dar nebuvo).
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * @param name      histogramos pavadinimas.
+     * @return          grąžina histogramą (sukuria, jeigu jos dar nebuvo).
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Rodikliai pateikiami JSON formatu. Skaitliukų sparta nepateikiama: programa didžiąją laiko dalį gali laukti
+     * vartotojo įvesties, todėl padalijus iš veikimo laiko gautųsi ne pralaidumas. Darbo trukmes rodo histogramos.
+     * @return      grąžina JSON eilutę.
+     */
+    public static String toJson() {
+        double seconds = (System.nanoTime() - START_NANOS) / 1e9;
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"uptimeSeconds\": ").append(format(seconds)).append(",\n  \"counters\": {");
+        String separator = "\n";
+        for(Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            long value = entry.getValue().sum();
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": ").append(value);
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        separator = "\n";
+        for(Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"mean\": ").append(format(histogram.getMean()))
+                    .append(", \"p50\": ").append(histogram.getPercentile(50))
+                    .append(", \"p90\": ").append(histogram.getPercentile(90))
+                    .append(", \"p99\": ").append(histogram.getPercentile(99))
+                    .append(", \"p999\": ").append(histogram.getPercentile(99.9))
+                    .append(", \"max\": ").append(histogram.getMax()).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * Programos JFR įvykių klasės užregistruojamos iš anksto. Pirmą kartą panaudojus įvykį, įkeliama JFR ir tai
+     * trunka kelis šimtus milisekundžių, todėl, nepaleidus šio metodo programos pradžioje, ši trukmė patektų į
+     * pirmą matuojamą darbą (pvz., sindromų lentelės sudarymo trukmę).
+     */
+    public static void initializeEvents() {
+        for(Class<? extends Event> event : EVENTS) EventType.getEventType(event);
+    }
+
+    /**
+     * Dabartiniai rodikliai įrašomi į failą.
+     * @param path      failas, į kurį įrašomi rodikliai.
+     */
+    public static void dump(Path path) {
+        try {
+            Files.writeString(path, toJson(), StandardCharsets.UTF_8);
+        } catch(IOException e) {
+            System.out.println("Nepavyko įrašyti programos veikimo rodiklių į failą: " + path);
+        }
+    }
+
+    /**
+     * Nurodoma programai baigiant darbą įrašyti rodiklius į failą.
+     * @param path      failas, į kurį bus įrašyti rodikliai.
+     */
+    public static void dumpOnExit(Path path) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(path), "metrics-dump"));
+    }
+
+    /**
+     * Fone skaitoma standartinė įvestis: kiekvieną kartą įvedus komandą „metrics“, dabartiniai rodikliai įrašomi
+     * į failą. Skirta ilgai veikiančioms programoms (pvz., serveriui), kurios įvesties kitaip nenaudoja.
+     * @param path      failas, į kurį įrašomi rodikliai.
+     */
+    public static void dumpOnCommand(Path path) {
+        Thread thread = new Thread(() -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            try {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    if(line.trim().equals(DUMP_COMMAND)) {
+                        dump(path);
+                        System.out.println("Programos veikimo rodikliai įrašyti į failą: " + path);
+                    }
+                }
+            } catch(IOException e) {
+                System.out.println("Nepavyko skaityti komandų: rodiklių įrašymas pagal komandą nutrauktas.");
+            }
+        }, "metrics-command");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+}
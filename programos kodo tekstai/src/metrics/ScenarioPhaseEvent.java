@@ -0,0 +1,48 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR įvykis, žymintis vieną scenarijaus etapą (skaidymą, siuntimą su kodu ar be jo, surinkimą).
+ * Kartu su JFR GC ir procesoriaus įvykiais leidžia matyti, kuriame etape praleidžiama daugiausiai laiko.
+ */
+@Name("codetheory.ScenarioPhase")
+@Label("Scenarijaus etapas")
+@Category({"Kodavimo teorija", "Scenarijai"})
+@StackTrace(false)
+public class ScenarioPhaseEvent extends Event {
+
+    @Label("Scenarijus")
+    public int scenario;
+
+    @Label("Etapas")
+    public String phase;
+
+    @Label("k")
+    public int k;
+
+    @Label("n")
+    public int n;
+
+    @Label("Vektorių skaičius")
+    public long vectorCount;
+
+    @Label("Apdorota baitų")
+    @Description("Etapo apdorotų naudingų duomenų kiekis.")
+    @DataAmount
+    public long bytesProcessed;
+
+    public ScenarioPhaseEvent(int scenario, String phase, int k, int n) {
+        this.scenario = scenario;
+        this.phase = phase;
+        this.k = k;
+        this.n = n;
+    }
+
+}
@@ -0,0 +1,32 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR įvykis, žymintis sindromų lentelės sudarymą. Kai JFR įrašymas išjungtas, įvykis nieko nekainuoja.
+ */
+@Name("codetheory.SyndromeTableBuild")
+@Label("Sindromų lentelės sudarymas")
+@Category({"Kodavimo teorija", "Sindromų lentelė"})
+@StackTrace(false)
+public class SyndromeTableBuildEvent extends Event {
+
+    @Label("k")
+    public int k;
+
+    @Label("n")
+    public int n;
+
+    @Label("Didžiausias klaidų svoris")
+    @Description("Ribotos lentelės t arba n, jeigu lentelė pilna.")
+    public int maxWeight;
+
+    @Label("Įrašų skaičius")
+    public long entries;
+
+}
@@ -0,0 +1,39 @@
+package pipeline;
+
+/**
+ * Tarp grandinės etapų perduodama duomenų dalis: arba nuskaityti baitai, arba vektoriai.
+ * Paskutinė dalis pažymima, kad etapai žinotų, kada baigti darbą, o surinkimo etapas - kiek baitų iš viso
+ * buvo įvesta (paskutiniame vektoriuje gali būti papildomų nulinių bitų).
+ */
+class Batch {
+
+    final byte[] bytes;
+    final int byteCount;
+    final int[][] vectors;
+    final boolean last;
+    final long totalBytes; // Prasminga tik paskutinėje dalyje.
+
+    private Batch(byte[] bytes, int byteCount, int[][] vectors, boolean last, long totalBytes) {
+        this.bytes = bytes;
+        this.byteCount = byteCount;
+        this.vectors = vectors;
+        this.last = last;
+        this.totalBytes = totalBytes;
+    }
+
+    static Batch ofBytes(byte[] bytes, int byteCount, boolean last, long totalBytes) {
+        return new Batch(bytes, byteCount, null, last, totalBytes);
+    }
+
+    static Batch ofVectors(int[][] vectors, boolean last, long totalBytes) {
+        return new Batch(null, 0, vectors, last, totalBytes);
+    }
+
+    /**
+     * @return      grąžina tokią pačią dalį, tik su kitais vektoriais.
+     */
+    Batch withVectors(int[][] newVectors) {
+        return new Batch(null, 0, newVectors, last, totalBytes);
+    }
+
+}
@@ -0,0 +1,183 @@
+package pipeline;
+
+import channels.Channel;
+import data.CodeData;
+import decoders.DecodeResult;
+import decoders.DecodeStatistics;
+import decoders.Decoder;
+import metrics.CodingStageEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Neužkoduoto ir užkoduoto siuntimo palyginimas vienu perėjimu: įvestis nuskaitoma dalimis vieną kartą, o kiekviena
+ * dalis iškart siunčiama abiem keliais - tiesiai kanalu ir per kodavimą, kanalą bei dekodavimą. Abu rezultatai
+ * rašomi į savo išvestis ir klaidos skaičiuojamos eigoje, todėl nereikia nei dviejų perėjimų per visus vektorius,
+ * nei visos bitų sekos eilutės. Abu keliai naudoja tą patį kanalą (tą patį klaidų srautą), dalys siunčiamos
+ * pakaitomis. Bitai iš baitų imami nuo aukščiausiojo. Paskutinis vektorius papildomas nuliais, bet į išvestį
+ * įrašomi tik tikri bitai. Užkoduoto kelio etapų (skaidymo, užkodavimo, siuntimo, dekodavimo ir surinkimo)
+ * trukmės sumuojamos kiekvienai daliai ir įrašomos kaip JFR įvykiai. Klasė nėra skirta naudoti keliose gijose vienu
+ * metu.
+ */
+public class ComparisonPipeline {
+
+    private static final int CHUNK_BYTES = 1 << 12; // Kiek baitų nuskaitoma ir siunčiama vienu kartu.
+
+    private final CodeData codeData;
+    private final Channel channel;
+    private final Decoder decoder;
+    private final DecodeStatistics statistics = new DecodeStatistics();
+    private long bytes;
+    private long uncodedBitErrors;
+    private long codedBitErrors;
+    private long chunkVectors; // Toliau - dabartinės dalies vektorių skaičius ir sukauptos etapų trukmės.
+    private long encodeNanos;
+    private long transmitNanos;
+    private long decodeNanos;
+    private long reassembleNanos;
+
+    public ComparisonPipeline(CodeData codeData, Channel channel, Decoder decoder) {
+        this.codeData = codeData;
+        this.channel = channel;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Visa įvestis nusiunčiama abiem keliais. Srautai neuždaromi, bet išvalomi ("flush").
+     * @param input             įvesties srautas.
+     * @param uncodedOutput     čia rašoma tai, kas gauta siunčiant be kodo.
+     * @param codedOutput       čia rašoma tai, kas gauta siunčiant su kodu ir dekodavus.
+     * @throws IOException      jeigu nepavyko skaityti ar rašyti.
+     */
+    public void run(InputStream input, OutputStream uncodedOutput, OutputStream codedOutput) throws IOException {
+        int k = codeData.getK();
+        byte[] chunk = new byte[CHUNK_BYTES];
+        byte[] uncoded = new byte[CHUNK_BYTES];
+        BitWriter coded = new BitWriter(codedOutput);
+        int[] vector = new int[k];
+        int filled = 0;
+        int count;
+        while((count = input.readNBytes(chunk, 0, CHUNK_BYTES)) > 0) {
+            bytes += count;
+            System.arraycopy(chunk, 0, uncoded, 0, count);
+            channel.transmit(uncoded, count);
+            for(int i = 0; i < count; i++) uncodedBitErrors += Integer.bitCount((chunk[i] ^ uncoded[i]) & 0xff);
+            uncodedOutput.write(uncoded, 0, count);
+            long start = System.nanoTime();
+            for(int i = 0; i < count; i++) {
+                for(int bit = 7; bit >= 0; bit--) {
+                    vector[filled++] = (chunk[i] >>> bit) & 1;
+                    if(filled == k) {
+                        sendCoded(vector, k, coded);
+                        filled = 0;
+                    }
+                }
+            }
+            emitStages(System.nanoTime() - start);
+        }
+        if(filled > 0) {
+            long start = System.nanoTime();
+            Arrays.fill(vector, filled, k, 0);
+            sendCoded(vector, filled, coded);
+            emitStages(System.nanoTime() - start);
+        }
+        uncodedOutput.flush();
+        coded.flush();
+    }
+
+    private void sendCoded(int[] vector, int realBits, BitWriter output) throws IOException {
+        long start = System.nanoTime();
+        int[] code = codeData.encode(vector);
+        long encoded = System.nanoTime();
+        int[] received = channel.transmit(code);
+        long transmitted = System.nanoTime();
+        DecodeResult result = decoder.decode(received);
+        long decodedAt = System.nanoTime();
+        statistics.add(result, decodedAt - transmitted);
+        int[] decoded = result.getDecoded();
+        for(int i = 0; i < realBits; i++) {
+            output.write(decoded[i]);
+            codedBitErrors += decoded[i] ^ vector[i];
+        }
+        encodeNanos += encoded - start;
+        transmitNanos += transmitted - encoded;
+        decodeNanos += decodedAt - transmitted;
+        reassembleNanos += System.nanoTime() - decodedAt;
+        chunkVectors++;
+    }
+
+    /**
+     * Įrašomi dalies etapų įvykiai ir sukauptos trukmės pradedamos skaičiuoti iš naujo.
+     * @param chunkNanos    visos dalies užkoduoto kelio trukmė: tai, kas lieka atėmus kitus etapus, - skaidymas.
+     */
+    private void emitStages(long chunkNanos) {
+        int k = codeData.getK();
+        int n = codeData.getN();
+        long splitNanos = chunkNanos - encodeNanos - transmitNanos - decodeNanos - reassembleNanos;
+        CodingStageEvent.emit("split", k, n, chunkVectors, splitNanos);
+        CodingStageEvent.emit("encode", k, n, chunkVectors, encodeNanos);
+        CodingStageEvent.emit("transmit", k, n, chunkVectors, transmitNanos);
+        CodingStageEvent.emit("decode", k, n, chunkVectors, decodeNanos);
+        CodingStageEvent.emit("reassemble", k, n, chunkVectors, reassembleNanos);
+        chunkVectors = 0;
+        encodeNanos = 0;
+        transmitNanos = 0;
+        decodeNanos = 0;
+        reassembleNanos = 0;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getUncodedBitErrors() {
+        return uncodedBitErrors;
+    }
+
+    public long getCodedBitErrors() {
+        return codedBitErrors;
+    }
+
+    public DecodeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Bitai surenkami į baitus (nuo aukščiausiojo) ir rašomi dalimis.
+     */
+    private static class BitWriter {
+
+        private final OutputStream output;
+        private final byte[] buffer = new byte[CHUNK_BYTES];
+        private int length;
+        private int current;
+        private int bits;
+
+        BitWriter(OutputStream output) {
+            this.output = output;
+        }
+
+        void write(int bit) throws IOException {
+            current = (current << 1) | bit;
+            if(++bits == 8) {
+                buffer[length++] = (byte) current;
+                current = 0;
+                bits = 0;
+                if(length == buffer.length) {
+                    output.write(buffer, 0, length);
+                    length = 0;
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            output.write(buffer, 0, length);
+            length = 0;
+            output.flush();
+        }
+
+    }
+
+}
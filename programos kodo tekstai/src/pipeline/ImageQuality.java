@@ -0,0 +1,133 @@
+package pipeline;
+
+/**
+ * Iš kanalo gauto paveiksliuko kokybės rodikliai, kaupiami eigoje: kiekviena juosta palyginama su pradine tada,
+ * kai jos reikšmės išpakuojamos įrašymui, todėl paveiksliukų iš naujo skaityti ir lyginti nereikia.
+ * Kiekvienai paveiksliuko juostai (spalvai, pilkumui ar paletės indeksui) skaičiuojama PSNR, klaidingų reikšmių
+ * ir bitų skaičius, o visam paveiksliukui - klaidingų taškų ir baitų skaičius.
+ * Klasė nėra skirta naudoti keliose gijose vienu metu, bet atskirai sukauptus rodiklius galima sujungti.
+ */
+public class ImageQuality {
+
+    private final int[] sampleSizes;
+    private final double[] squaredErrors;
+    private final long[] sampleErrors;
+    private final long[] bitErrors;
+    private long pixels;
+    private long pixelErrors;
+    private long bytes;
+    private long byteErrors;
+
+    /**
+     * @param sampleSizes       kiekvienos juostos reikšmės bitų skaičius.
+     */
+    public ImageQuality(int[] sampleSizes) {
+        this.sampleSizes = sampleSizes.clone();
+        squaredErrors = new double[sampleSizes.length];
+        sampleErrors = new long[sampleSizes.length];
+        bitErrors = new long[sampleSizes.length];
+    }
+
+    /**
+     * Įtraukiama viena paveiksliuko dalis.
+     * @param original          pradinės reikšmės (taškas po taško, juostos iš eilės).
+     * @param received          iš kanalo gautos reikšmės ta pačia tvarka.
+     * @param sentBytes         kanalu siųsti supakuoti baitai.
+     * @param receivedBytes     iš kanalo gauti supakuoti baitai.
+     */
+    public void add(int[] original, int[] received, byte[] sentBytes, byte[] receivedBytes) {
+        int bands = sampleSizes.length;
+        for(int i = 0; i < original.length; i += bands) {
+            boolean wrong = false;
+            for(int band = 0; band < bands; band++) {
+                int difference = original[i + band] ^ received[i + band];
+                if(difference != 0) {
+                    double error = original[i + band] - received[i + band];
+                    squaredErrors[band] += error * error;
+                    sampleErrors[band]++;
+                    bitErrors[band] += Integer.bitCount(difference);
+                    wrong = true;
+                }
+            }
+            if(wrong) pixelErrors++;
+        }
+        pixels += original.length / bands;
+        for(int i = 0; i < sentBytes.length; i++) {
+            if(i >= receivedBytes.length || sentBytes[i] != receivedBytes[i]) byteErrors++;
+        }
+        bytes += sentBytes.length;
+    }
+
+    /**
+     * Prijungiami kitos paveiksliuko dalies rodikliai.
+     * @param other     prijungiami rodikliai (tų pačių juostų).
+     */
+    public void add(ImageQuality other) {
+        for(int band = 0; band < sampleSizes.length; band++) {
+            squaredErrors[band] += other.squaredErrors[band];
+            sampleErrors[band] += other.sampleErrors[band];
+            bitErrors[band] += other.bitErrors[band];
+        }
+        pixels += other.pixels;
+        pixelErrors += other.pixelErrors;
+        bytes += other.bytes;
+        byteErrors += other.byteErrors;
+    }
+
+    public int getBandCount() {
+        return sampleSizes.length;
+    }
+
+    /**
+     * @param band      juostos numeris.
+     * @return          grąžina juostos PSNR decibelais (didžiausia reikšmė - 2^bitų - 1) arba begalybę, jeigu
+     *                  klaidų nėra.
+     */
+    public double getPsnr(int band) {
+        if(squaredErrors[band] == 0) return Double.POSITIVE_INFINITY;
+        double max = (1L << sampleSizes[band]) - 1;
+        return 10 * Math.log10(max * max * pixels / squaredErrors[band]);
+    }
+
+    public long getSampleErrors(int band) {
+        return sampleErrors[band];
+    }
+
+    public long getBitErrors(int band) {
+        return bitErrors[band];
+    }
+
+    public long getBitErrors() {
+        long sum = 0;
+        for(long errors : bitErrors) sum += errors;
+        return sum;
+    }
+
+    public long getPixels() {
+        return pixels;
+    }
+
+    public long getPixelErrors() {
+        return pixelErrors;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getByteErrors() {
+        return byteErrors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Klaidingų taškų: " + pixelErrors + " iš " + pixels +
+                ", klaidingų baitų: " + byteErrors + " iš " + bytes + ", klaidingų bitų: " + getBitErrors() + ".");
+        for(int band = 0; band < sampleSizes.length; band++) {
+            text.append(String.format("%n  Juosta %d: PSNR %.2f dB, klaidingų reikšmių %d, klaidingų bitų %d.",
+                    band, getPsnr(band), sampleErrors[band], bitErrors[band]));
+        }
+        return text.toString();
+    }
+
+}
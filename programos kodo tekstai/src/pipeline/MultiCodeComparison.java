@@ -0,0 +1,231 @@
+package pipeline;
+
+import channels.Channel;
+import channels.SplittableErrorModel;
+import data.CodeData;
+import decoders.DecodeResult;
+import decoders.DecodeStatistics;
+import decoders.Decoder;
+import decoders.DecoderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Kelių kodų palyginimas vienu perėjimu: įvestis nuskaitoma dalimis vieną kartą, o kiekviena dalis iškart siunčiama
+ * be kodo ir kiekvienu kodu. Visi keliai gauna tą patį klaidų srautą: kiekvienam keliui sukuriamas kanalas su to
+ * paties klaidų modelio kopija ir ta pačia sėkla, todėl klaidos patenka į tas pačias siunčiamų bitų pozicijas ir
+ * kodai skiriasi tik tuo, kaip jas ištaiso. Sindromų lentelės sudaromos lygiagrečiai prieš siuntimą.
+ * Bitai iš baitų imami nuo aukščiausiojo. Paskutinis kiekvieno kodo vektorius papildomas nuliais, bet klaidos
+ * skaičiuojamos tik tikriems bitams. Klasė nėra skirta naudoti keliose gijose vienu metu.
+ */
+public class MultiCodeComparison {
+
+    private static final int CHUNK_BYTES = 1 << 12; // Kiek baitų nuskaitoma ir siunčiama vienu kartu.
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Row uncoded;
+    private long bytes;
+
+    /**
+     * Sudaromi visų kodų dekoderiai ("DecoderFactory"): kai n-k ne didesnis nei 24 - pilna sindromų lentelė, kai iki
+     * 64 - ribota iki maxWeight svorio lentelė, o kai didesnis - bitų keitimo dekoderis. Lentelės sudaromos
+     * lygiagrečiai.
+     * @param codes         lyginami kodai.
+     * @param errorModel    kanalo klaidų modelis (kiekvienam keliui naudojama jo kopija).
+     * @param channelSeed   visų kelių kanalų sėkla.
+     * @param maxWeight     ribotų sindromų lentelių didžiausias klaidų svoris.
+     */
+    public MultiCodeComparison(List<CodeData> codes, SplittableErrorModel errorModel, long channelSeed, int maxWeight) {
+        uncoded = new Row(null, null, new Channel(errorModel.copy(new Random(channelSeed))));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(codes.size(),
+                Runtime.getRuntime().availableProcessors())));
+        try {
+            List<Future<Decoder>> decoders = new ArrayList<>();
+            List<long[]> buildNanos = new ArrayList<>();
+            for(CodeData codeData : codes) {
+                long[] nanos = new long[1];
+                buildNanos.add(nanos);
+                decoders.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    Decoder decoder = DecoderFactory.create(codeData, maxWeight);
+                    nanos[0] = System.nanoTime() - start;
+                    return decoder;
+                }));
+            }
+            for(int i = 0; i < codes.size(); i++) {
+                Row row = new Row(codes.get(i), decoders.get(i).get(),
+                        new Channel(errorModel.copy(new Random(channelSeed))));
+                row.buildNanos = buildNanos.get(i)[0]; // Future.get() užtikrina, kad reikšmė matoma.
+                rows.add(row);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sindromų lentelių sudarymas nutrauktas.", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException("Nepavyko sudaryti sindromų lentelės.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Visa įvestis nusiunčiama be kodo ir kiekvienu kodu.
+     * @param input             įvesties srautas (neuždaromas).
+     * @throws IOException      jeigu nepavyko skaityti.
+     */
+    public void run(InputStream input) throws IOException {
+        byte[] chunk = new byte[CHUNK_BYTES];
+        byte[] received = new byte[CHUNK_BYTES];
+        int count;
+        while((count = input.readNBytes(chunk, 0, CHUNK_BYTES)) > 0) {
+            bytes += count;
+            long start = System.nanoTime();
+            System.arraycopy(chunk, 0, received, 0, count);
+            uncoded.channel.transmit(received, count);
+            for(int i = 0; i < count; i++) uncoded.bitErrors += Integer.bitCount((chunk[i] ^ received[i]) & 0xff);
+            uncoded.nanos += System.nanoTime() - start;
+            for(Row row : rows) row.send(chunk, count);
+        }
+        for(Row row : rows) row.finish();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return      grąžina siuntimo be kodo rezultatą.
+     */
+    public Row getUncoded() {
+        return uncoded;
+    }
+
+    /**
+     * @return      grąžina kiekvieno kodo rezultatą ta tvarka, kuria kodai buvo paduoti.
+     */
+    public List<Row> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Vieno kelio (kodo arba siuntimo be kodo) būsena ir rezultatai.
+     */
+    public class Row {
+
+        private final CodeData codeData;
+        private final Decoder decoder;
+        private final Channel channel;
+        private final DecodeStatistics statistics = new DecodeStatistics();
+        private final int[] vector;
+        private int filled;
+        private long bitErrors;
+        private long nanos;
+        private long buildNanos;
+
+        private Row(CodeData codeData, Decoder decoder, Channel channel) {
+            this.codeData = codeData;
+            this.decoder = decoder;
+            this.channel = channel;
+            vector = codeData == null ? null : new int[codeData.getK()];
+        }
+
+        private void send(byte[] chunk, int count) {
+            long start = System.nanoTime();
+            int k = codeData.getK();
+            for(int i = 0; i < count; i++) {
+                for(int bit = 7; bit >= 0; bit--) {
+                    vector[filled++] = (chunk[i] >>> bit) & 1;
+                    if(filled == k) {
+                        sendVector(k);
+                        filled = 0;
+                    }
+                }
+            }
+            nanos += System.nanoTime() - start;
+        }
+
+        private void finish() {
+            if(filled == 0) return;
+            long start = System.nanoTime();
+            Arrays.fill(vector, filled, codeData.getK(), 0);
+            sendVector(filled);
+            filled = 0;
+            nanos += System.nanoTime() - start;
+        }
+
+        private void sendVector(int realBits) {
+            int[] code = codeData.encode(vector);
+            int[] received = channel.transmit(code);
+            long start = System.nanoTime();
+            DecodeResult result = decoder.decode(received);
+            statistics.add(result, System.nanoTime() - start);
+            int[] decoded = result.getDecoded();
+            for(int i = 0; i < realBits; i++) bitErrors += decoded[i] ^ vector[i];
+        }
+
+        /**
+         * @return      grąžina kodo pavadinimą, pvz., „(16, 8)“, arba „be kodo“.
+         */
+        public String getName() {
+            return codeData == null ? "be kodo" : "(" + codeData.getN() + ", " + codeData.getK() + ")";
+        }
+
+        public CodeData getCodeData() {
+            return codeData;
+        }
+
+        /**
+         * @return      grąžina kodo spartą k/n (be kodo - 1).
+         */
+        public double getRate() {
+            return codeData == null ? 1 : (double) codeData.getK() / codeData.getN();
+        }
+
+        /**
+         * @return      grąžina neištaisytų (gautų klaidingai) informacijos bitų skaičių.
+         */
+        public long getBitErrors() {
+            return bitErrors;
+        }
+
+        public double getBitErrorRate() {
+            return bytes == 0 ? 0 : (double) bitErrors / (bytes * 8);
+        }
+
+        /**
+         * @return      grąžina, kiek informacijos megabaitų per sekundę apdorota šiuo keliu (kodavimas, siuntimas ir
+         *              dekodavimas).
+         */
+        public double getMegabytesPerSecond() {
+            return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+        }
+
+        /**
+         * @return      grąžina vidutinę vieno vektoriaus dekodavimo trukmę mikrosekundėmis.
+         */
+        public double getAverageDecodeMicros() {
+            double wordsPerSecond = statistics.getWordsPerSecond();
+            return wordsPerSecond == 0 ? 0 : 1e6 / wordsPerSecond;
+        }
+
+        public double getBuildMillis() {
+            return buildNanos / 1e6;
+        }
+
+        public DecodeStatistics getStatistics() {
+            return statistics;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package pipeline;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Gijų, kuriose vykdomi grandinės etapai, kūrimas. Jeigu programa paleista su Java 21 ar naujesne versija,
+ * naudojamos virtualios gijos (jų kūrimas pigus, o blokuojanti įvestis ir išvestis neužima platformos gijų).
+ * Senesnėse versijose virtualių gijų nėra, todėl naudojamos įprastos "daemon" gijos.
+ */
+final class StageThreads {
+
+    private static final ThreadFactory FACTORY = createFactory();
+
+    private StageThreads() {
+    }
+
+    /**
+     * @return      grąžina sukurtą, bet dar nepaleistą etapo giją.
+     */
+    static Thread create(String name, Runnable stage) {
+        Thread thread = FACTORY.newThread(stage);
+        thread.setName(name);
+        return thread;
+    }
+
+    /**
+     * Virtualių gijų gamykla gaunama per refleksiją (Thread.ofVirtual().factory()), kad programa
+     * kompiliuotųsi ir veiktų ir su senesnėmis Java versijomis.
+     */
+    private static ThreadFactory createFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch(ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+}
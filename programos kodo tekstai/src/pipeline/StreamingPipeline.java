@@ -0,0 +1,259 @@
+package pipeline;
+
+import channels.Channel;
+import data.CodeData;
+import decoders.DecodeResult;
+import decoders.DecodeStatistics;
+import decoders.Decoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Srautinė kodavimo grandinė: skaitymas, skaidymas į vektorius, užkodavimas, siuntimas kanalu, dekodavimas ir
+ * surinkimas atgal į baitus vyksta vienu metu atskirose gijose. Etapus jungia ribotos talpos eilės, todėl greitas
+ * etapas, aplenkęs lėtesnį, palaukia (atgalinis slėgis), o atmintis nepriklauso nuo įvesties dydžio.
+ * Pirmieji rezultatai išvedami dar nenuskaičius visos įvesties.
+ * Bitai iš baitų imami nuo aukščiausiojo. Paskutinis vektorius papildomas nuliais, o surinkus jie numetami.
+ */
+public class StreamingPipeline {
+
+    private static final int DEFAULT_BATCH_BYTES = 1 << 12; // Kiek baitų nuskaitoma vienu kartu.
+    private static final int DEFAULT_QUEUE_CAPACITY = 8; // Kiek dalių gali laukti tarp dviejų etapų.
+
+    private final CodeData codeData;
+    private final Channel channel;
+    private final Decoder decoder;
+    private final int batchBytes;
+    private final int queueCapacity;
+    private final DecodeStatistics statistics = new DecodeStatistics();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public StreamingPipeline(CodeData codeData, Channel channel, Decoder decoder) {
+        this(codeData, channel, decoder, DEFAULT_BATCH_BYTES, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public StreamingPipeline(CodeData codeData, Channel channel, Decoder decoder, int batchBytes, int queueCapacity) {
+        this.codeData = codeData;
+        this.channel = channel;
+        this.decoder = decoder;
+        this.batchBytes = batchBytes;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Visa įvestis perleidžiama per grandinę ir įrašoma į išvestį. Metodas grįžta, kai išvestis įrašyta.
+     * Grandinę galima paleisti tik vieną kartą.
+     * @param input     įvesties srautas (neuždaromas).
+     * @param output    išvesties srautas (neuždaromas, bet išvalomas "flush").
+     * @throws IOException  jeigu nepavyko skaityti ar rašyti.
+     */
+    public void run(InputStream input, OutputStream output) throws IOException {
+        BlockingQueue<Batch> read = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> split = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> encoded = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> transmitted = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> decoded = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch> reassembled = new ArrayBlockingQueue<>(queueCapacity);
+        List<Thread> threads = new ArrayList<>();
+        addStage(threads, "read", () -> readStage(input, read));
+        addStage(threads, "split", () -> transformStage(read, split, new Splitter()));
+        addStage(threads, "encode", () -> transformStage(split, encoded, this::encode));
+        addStage(threads, "transmit", () -> transformStage(encoded, transmitted, this::transmit));
+        addStage(threads, "decode", () -> transformStage(transmitted, decoded, this::decode));
+        addStage(threads, "reassemble", () -> transformStage(decoded, reassembled, new Reassembler()));
+        addStage(threads, "write", () -> writeStage(reassembled, output));
+        for(Thread thread : threads) thread.start(); // Visos gijos sukurtos, todėl klaida bet kuriame etape pasiekia visas.
+        boolean interrupted = false;
+        for(Thread thread : threads) {
+            while(thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch(InterruptedException e) {
+                    interrupted = true; // Laukiama, kol sustos visi etapai, o pertraukimas atstatomas pabaigoje.
+                    stopAll(e, threads);
+                }
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+        Throwable error = failure.get();
+        if(error instanceof UncheckedIOException) throw ((UncheckedIOException) error).getCause();
+        if(error instanceof IOException) throw (IOException) error;
+        if(error instanceof InterruptedException) throw new IOException("Grandinės darbas nutrauktas.", error);
+        if(error instanceof RuntimeException) throw (RuntimeException) error;
+        if(error instanceof Error) throw (Error) error;
+    }
+
+    /**
+     * @return      grąžina dekodavimo statistiką (prasminga, kai grandinė baigė darbą).
+     */
+    public DecodeStatistics getStatistics() {
+        return statistics;
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    /**
+     * Etapo gija sukuriama, bet nepaleidžiama: gijos paleidžiamos tik tada, kai sąrašas pilnas, kad etapas,
+     * kuriame įvyko klaida, pertrauktų visus kitus, o ne tik jau sukurtus.
+     */
+    private void addStage(List<Thread> threads, String name, Stage stage) {
+        threads.add(StageThreads.create("pipeline-" + name, () -> {
+            try {
+                stage.run();
+            } catch(Throwable e) {
+                stopAll(e, threads);
+            }
+        }));
+    }
+
+    /**
+     * Įvykus klaidai viename etape, kiti etapai pertraukiami, kad nelauktų amžinai.
+     */
+    private void stopAll(Throwable cause, List<Thread> threads) {
+        if(failure.compareAndSet(null, cause)) {
+            for(Thread thread : threads) thread.interrupt();
+        }
+    }
+
+    private void readStage(InputStream input, BlockingQueue<Batch> out) throws IOException, InterruptedException {
+        long total = 0;
+        byte[] buffer = new byte[batchBytes];
+        int count = input.readNBytes(buffer, 0, batchBytes);
+        while(true) {
+            total += count;
+            byte[] next = new byte[batchBytes];
+            int nextCount = count < batchBytes ? 0 : input.readNBytes(next, 0, batchBytes);
+            boolean last = nextCount == 0;
+            out.put(Batch.ofBytes(buffer, count, last, total));
+            if(last) return;
+            buffer = next;
+            count = nextCount;
+        }
+    }
+
+    private void transformStage(BlockingQueue<Batch> in, BlockingQueue<Batch> out, UnaryOperator<Batch> operation)
+            throws InterruptedException {
+        while(true) {
+            Batch batch = in.take();
+            out.put(operation.apply(batch));
+            if(batch.last) return;
+        }
+    }
+
+    private void writeStage(BlockingQueue<Batch> in, OutputStream output) throws IOException, InterruptedException {
+        while(true) {
+            Batch batch = in.take();
+            output.write(batch.bytes, 0, batch.byteCount);
+            if(batch.last) {
+                output.flush();
+                return;
+            }
+        }
+    }
+
+    private Batch encode(Batch batch) {
+        int[][] encoded = new int[batch.vectors.length][];
+        for(int i = 0; i < encoded.length; i++) {
+            encoded[i] = codeData.encode(batch.vectors[i]);
+        }
+        return batch.withVectors(encoded);
+    }
+
+    private Batch transmit(Batch batch) {
+        int[][] transmitted = new int[batch.vectors.length][];
+        for(int i = 0; i < transmitted.length; i++) {
+            transmitted[i] = channel.transmit(batch.vectors[i]);
+        }
+        return batch.withVectors(transmitted);
+    }
+
+    private Batch decode(Batch batch) {
+        int[][] decoded = new int[batch.vectors.length][];
+        for(int i = 0; i < decoded.length; i++) {
+            long start = System.nanoTime();
+            DecodeResult result = decoder.decode(batch.vectors[i]);
+            statistics.add(result, System.nanoTime() - start);
+            decoded[i] = result.getDecoded();
+        }
+        return batch.withVectors(decoded);
+    }
+
+    /**
+     * Baitai skaidomi į k ilgio vektorius. Bitai, kurių neužteko pilnam vektoriui, laukia kitos dalies.
+     */
+    private class Splitter implements UnaryOperator<Batch> {
+
+        private final int k = codeData.getK();
+        private final int[] pending = new int[k];
+        private int pendingCount;
+
+        @Override
+        public Batch apply(Batch batch) {
+            long bits = (long) pendingCount + batch.byteCount * 8L;
+            int vectorCount = (int) (bits / k);
+            if(batch.last && bits % k != 0) vectorCount++; // Paskutinis vektorius papildomas nuliais.
+            int[][] vectors = new int[vectorCount][];
+            int produced = 0;
+            for(int i = 0; i < batch.byteCount; i++) {
+                int value = batch.bytes[i] & 0xff;
+                for(int bit = 7; bit >= 0; bit--) {
+                    pending[pendingCount++] = (value >>> bit) & 1;
+                    if(pendingCount == k) {
+                        vectors[produced++] = pending.clone();
+                        pendingCount = 0;
+                    }
+                }
+            }
+            if(batch.last && pendingCount != 0) {
+                int[] lastVector = new int[k];
+                System.arraycopy(pending, 0, lastVector, 0, pendingCount);
+                vectors[produced] = lastVector;
+            }
+            return Batch.ofVectors(vectors, batch.last, batch.totalBytes);
+        }
+
+    }
+
+    /**
+     * Iš dekoduotų vektorių paimami pirmieji k bitų (vienetinės matricos dalis) ir surenkami į baitus.
+     * Paskutinėje dalyje išvedama tik tiek baitų, kiek jų buvo įvestyje.
+     */
+    private class Reassembler implements UnaryOperator<Batch> {
+
+        private final int k = codeData.getK();
+        private int currentByte;
+        private int bitCount;
+        private long writtenBytes;
+
+        @Override
+        public Batch apply(Batch batch) {
+            byte[] bytes = new byte[(int) ((bitCount + (long) batch.vectors.length * k) / 8)];
+            int count = 0;
+            for(int[] vector : batch.vectors) {
+                for(int i = 0; i < k; i++) {
+                    currentByte = (currentByte << 1) | vector[i];
+                    if(++bitCount == 8) {
+                        bytes[count++] = (byte) currentByte;
+                        currentByte = 0;
+                        bitCount = 0;
+                    }
+                }
+            }
+            if(batch.last) count = (int) Math.min(count, batch.totalBytes - writtenBytes); // Numetami papildomi bitai.
+            writtenBytes += count;
+            return Batch.ofBytes(bytes, count, batch.last, batch.totalBytes);
+        }
+
+    }
+
+}
@@ -0,0 +1,382 @@
+package pipeline;
+
+import channels.Channel;
+import data.CodeData;
+import decoders.DecodeStatistics;
+import decoders.Decoder;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Paveiksliuko siuntimas juostomis: kiekviena juosta siunčiama kanalu neužkoduota ir užkoduota
+ * ("ComparisonPipeline"), o gautos juostos iškart įrašomos į TIFF failus ("ImageWriter.replacePixels").
+ * Juostos apdorojamos lygiagrečiai, kiekviena su savo kanalu, o įrašomos eilės tvarka.
+ * Jeigu formatas leidžia skaityti bet kurią paveiksliuko sritį nedekoduojant visko prieš ją (TIFF, BMP), juostos
+ * skaitomos po vieną ("ImageReader" srities skaitymas) ir atmintyje laikoma tik kelios juostos, todėl atmintis
+ * nepriklauso nuo paveiksliuko dydžio. PNG, JPEG, GIF ir kiti nuoseklūs formatai kiekvieną sritį skaito nuo failo
+ * pradžios, todėl skaitant juostomis darbas augtų kvadratiškai nuo juostų skaičiaus - tokie paveiksliukai
+ * dekoduojami vieną kartą visi, o juostos imamos iš dekoduoto paveiksliuko (atmintis - kaip visam paveiksliukui).
+ * Siunčiamos paveiksliuko reikšmės tokios, kokios jos saugomos faile (pvz., spalvų paletės indeksai, pilkumo ar
+ * 16 bitų reikšmės), kiekviena reikšmė užima tiek bitų, kiek jai skirta faile. Todėl tinka bet kokio tipo
+ * paveiksliukai, o ne tik 3 baitų BGR.
+ * Išpakuojant gautas juostas, jos iškart palyginamos su pradinėmis ir kaupiami kokybės rodikliai ("ImageQuality"),
+ * todėl įrašytų paveiksliukų vertinti atskirai nereikia.
+ */
+public class TiledImagePipeline {
+
+    private static final int STRIP_SAMPLES = 1 << 20; // Apytiksliai kiek reikšmių vienoje juostoje.
+    private static final int STRIP_ROW_MULTIPLE = 8; // Juostos aukštis - 8 kartotinis, kad juostos bitai sudarytų pilnus baitus.
+
+    private final CodeData codeData;
+    private final Decoder decoder;
+    private final IntFunction<Channel> channels;
+    private final int threads;
+    private final DecodeStatistics statistics = new DecodeStatistics();
+    private long bytes;
+    private long uncodedBitErrors;
+    private long codedBitErrors;
+    private int width;
+    private int height;
+    private ImageQuality uncodedQuality;
+    private ImageQuality codedQuality;
+
+    /**
+     * @param codeData      kodo parametrai.
+     * @param decoder       dekoderis (turi būti tinkamas naudoti keliose gijose vienu metu).
+     * @param channels      kanalas kiekvienai juostai pagal jos numerį (kiekvienai gijai - savas kanalas).
+     * @param threads       kiek juostų apdorojama lygiagrečiai.
+     */
+    public TiledImagePipeline(CodeData codeData, Decoder decoder, IntFunction<Channel> channels, int threads) {
+        this.codeData = codeData;
+        this.decoder = decoder;
+        this.channels = channels;
+        this.threads = threads;
+    }
+
+    /**
+     * Paveiksliukas perleidžiamas per kanalą ir abu rezultatai įrašomi TIFF formatu.
+     * @param input             pradinis paveiksliukas (bet koks formatas, kurį moka skaityti "ImageIO").
+     * @param uncodedOutput     čia įrašomas paveiksliukas, siųstas be kodo.
+     * @param codedOutput       čia įrašomas paveiksliukas, siųstas su kodu ir dekoduotas.
+     * @throws IOException      jeigu nepavyko perskaityti ar įrašyti paveiksliuko.
+     */
+    public void run(Path input, Path uncodedOutput, Path codedOutput) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try(ImageInputStream in = ImageIO.createImageInputStream(input.toFile())) {
+            if(in == null) throw new IOException("Nepavyko atidaryti paveiksliuko: " + input);
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if(!readers.hasNext()) throw new IOException("Nežinomas paveiksliuko formatas: " + input);
+            ImageReader reader = readers.next();
+            reader.setInput(in, true, true);
+            try {
+                width = reader.getWidth(0);
+                height = reader.getHeight(0);
+                ImageTypeSpecifier type = sampleType(reader);
+                ImageTypeSpecifier outputType = outputType(type);
+                try(Output uncoded = new Output(uncodedOutput, outputType);
+                    Output coded = new Output(codedOutput, outputType)) {
+                    process(reader, type, outputType, uncoded, coded, executor);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Juostos skaitomos eilės tvarka ir atiduodamos gijoms. Kai laukiančių juostų per daug, palaukiama seniausios
+     * ir ji įrašoma - taip atmintyje niekada nebūna daugiau kaip 2 * threads juostų (be dekoduoto paveiksliuko,
+     * kai formatas nuoseklus).
+     */
+    private void process(ImageReader reader, ImageTypeSpecifier type, ImageTypeSpecifier outputType, Output uncoded,
+                         Output coded, ExecutorService executor) throws IOException {
+        int bands = type.getSampleModel().getNumBands();
+        int stripRows = Math.max(1, STRIP_SAMPLES / Math.max(1, width * bands));
+        stripRows = Math.max(STRIP_ROW_MULTIPLE, stripRows / STRIP_ROW_MULTIPLE * STRIP_ROW_MULTIPLE);
+        int[] sampleSizes = type.getSampleModel().getSampleSize();
+        uncodedQuality = new ImageQuality(sampleSizes);
+        codedQuality = new ImageQuality(sampleSizes);
+        Raster whole = reader.isImageTiled(0) || reader.isRandomAccessEasy(0) ? null : read(reader, type, null);
+        Deque<Future<Strip>> pending = new ArrayDeque<>();
+        int index = 0;
+        for(int y = 0; y < height; y += stripRows) {
+            int rows = Math.min(stripRows, height - y);
+            Raster raster = whole != null ? whole.createChild(0, y, width, rows, 0, 0, null)
+                    : read(reader, type, new Rectangle(0, y, width, rows));
+            int stripIndex = index++;
+            int stripY = y;
+            pending.add(executor.submit(() -> transmit(stripIndex, stripY, raster, sampleSizes, outputType)));
+            if(pending.size() >= 2 * threads) write(pending.poll(), uncoded, coded);
+        }
+        while(!pending.isEmpty()) write(pending.poll(), uncoded, coded);
+    }
+
+    /**
+     * Renkamas reikšmių tipas: jeigu įmanoma, toks, kaip faile, bet tik jeigu jo spalvų erdvę (RGB, pilkumo arba
+     * paletę) įrašo ir TIFF rašytojas. Kitaip (pvz., CMYK) imamas pirmas tinkamas dekoduotas tipas.
+     */
+    private static ImageTypeSpecifier sampleType(ImageReader reader) throws IOException {
+        ImageTypeSpecifier raw = reader.getRawImageType(0);
+        if(raw != null && writable(raw)) return raw;
+        Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+        while(types.hasNext()) {
+            ImageTypeSpecifier type = types.next();
+            if(writable(type)) return type;
+        }
+        throw new IOException("Paveiksliuko spalvų erdvė nepalaikoma.");
+    }
+
+    private static boolean writable(ImageTypeSpecifier type) {
+        ColorModel colorModel = type.getColorModel();
+        if(colorModel instanceof IndexColorModel) return true;
+        int space = colorModel.getColorSpace().getType();
+        return space == ColorSpace.TYPE_RGB || space == ColorSpace.TYPE_GRAY;
+    }
+
+    /**
+     * TIFF rašytojas nemoka pakeisti juostų paveiksliukuose, kur keli taškai supakuoti į vieną baitą (pvz., 1 bito
+     * nespalvotuose), todėl tokie paveiksliukai įrašomi po baitą taškui. Kanalu vis tiek siunčiami tik tikrieji bitai.
+     */
+    private static ImageTypeSpecifier outputType(ImageTypeSpecifier type) {
+        if(!(type.getSampleModel() instanceof MultiPixelPackedSampleModel)) return type;
+        ColorModel colorModel = type.getColorModel();
+        int bits = type.getSampleModel().getSampleSize(0);
+        if(colorModel instanceof IndexColorModel) {
+            IndexColorModel indexed = (IndexColorModel) colorModel;
+            byte[] red = new byte[1 << Byte.SIZE]; // Likusios paletės vietos nenaudojamos.
+            byte[] green = new byte[1 << Byte.SIZE];
+            byte[] blue = new byte[1 << Byte.SIZE];
+            indexed.getReds(red);
+            indexed.getGreens(green);
+            indexed.getBlues(blue);
+            return ImageTypeSpecifier.createIndexed(red, green, blue, null, Byte.SIZE, DataBuffer.TYPE_BYTE);
+        }
+        return ImageTypeSpecifier.createGrayscale(bits, DataBuffer.TYPE_BYTE, false);
+    }
+
+    /**
+     * Paveiksliukas visada dekoduojamas į pasirinktą tipą: "readRaster" grąžina reikšmes be spalvų konvertavimo
+     * (pvz., JPEG - YCbCr, nors pats tipas nurodo RGB), todėl jomis remtis negalima.
+     * @param region    skaitoma sritis arba null, jeigu skaitomas visas paveiksliukas.
+     */
+    private static Raster read(ImageReader reader, ImageTypeSpecifier type, Rectangle region) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        if(region != null) param.setSourceRegion(region);
+        param.setDestinationType(type);
+        return reader.read(0, param).getRaster();
+    }
+
+    /**
+     * Vienos juostos reikšmės supakuojamos į bitų seką, nusiunčiamos abiem būdais ir išpakuojamos atgal.
+     * Išpakuotos reikšmės iškart palyginamos su pradinėmis.
+     */
+    private Strip transmit(int index, int y, Raster raster, int[] sampleSizes, ImageTypeSpecifier outputType) {
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        int[] samples = raster.getPixels(raster.getMinX(), raster.getMinY(), w, h, (int[]) null);
+        byte[] packed = pack(samples, sampleSizes);
+        ComparisonPipeline pipeline = new ComparisonPipeline(codeData, channels.apply(index), decoder);
+        ByteArrayOutputStream uncoded = new ByteArrayOutputStream(packed.length);
+        ByteArrayOutputStream coded = new ByteArrayOutputStream(packed.length);
+        try {
+            pipeline.run(new ByteArrayInputStream(packed), uncoded, coded);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e); // Atminties srautai šios klaidos nemeta.
+        }
+        Strip strip = new Strip(y, pipeline, sampleSizes);
+        strip.uncoded = receive(samples, packed, uncoded.toByteArray(), sampleSizes, outputType, w, h,
+                strip.uncodedQuality);
+        strip.coded = receive(samples, packed, coded.toByteArray(), sampleSizes, outputType, w, h,
+                strip.codedQuality);
+        return strip;
+    }
+
+    private static Raster receive(int[] samples, byte[] packed, byte[] received, int[] sampleSizes,
+                                  ImageTypeSpecifier outputType, int w, int h, ImageQuality quality) {
+        int[] receivedSamples = unpack(received, samples.length, sampleSizes);
+        quality.add(samples, receivedSamples, packed, received);
+        WritableRaster raster = Raster.createWritableRaster(outputType.getSampleModel(w, h), null);
+        raster.setPixels(0, 0, w, h, receivedSamples);
+        return raster;
+    }
+
+    private void write(Future<Strip> future, Output uncoded, Output coded) throws IOException {
+        Strip strip;
+        try {
+            strip = future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Paveiksliuko apdorojimas nutrauktas.", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException("Nepavyko apdoroti paveiksliuko juostos.", e.getCause());
+        }
+        uncoded.write(strip.uncoded, strip.y);
+        coded.write(strip.coded, strip.y);
+        statistics.add(strip.pipeline.getStatistics());
+        bytes += strip.pipeline.getBytes();
+        uncodedBitErrors += strip.pipeline.getUncodedBitErrors();
+        codedBitErrors += strip.pipeline.getCodedBitErrors();
+        uncodedQuality.add(strip.uncodedQuality);
+        codedQuality.add(strip.codedQuality);
+    }
+
+    /**
+     * Reikšmės surašomos viena po kitos, kiekviena - tiek bitų, kiek skirta jos juostai (nuo aukščiausiojo).
+     */
+    static byte[] pack(int[] samples, int[] sampleSizes) {
+        int bits = 0;
+        for(int size : sampleSizes) bits += size;
+        byte[] packed = new byte[(int) (((long) samples.length / sampleSizes.length * bits + 7) / 8)];
+        long position = 0;
+        for(int i = 0; i < samples.length; i++) {
+            int size = sampleSizes[i % sampleSizes.length];
+            for(int bit = size - 1; bit >= 0; bit--, position++) {
+                if((samples[i] >>> bit & 1) != 0) packed[(int) (position >>> 3)] |= (byte) (0x80 >>> (position & 7));
+            }
+        }
+        return packed;
+    }
+
+    static int[] unpack(byte[] packed, int count, int[] sampleSizes) {
+        int[] samples = new int[count];
+        long position = 0;
+        for(int i = 0; i < count; i++) {
+            int size = sampleSizes[i % sampleSizes.length];
+            int value = 0;
+            for(int bit = 0; bit < size; bit++, position++) {
+                value = (value << 1) | (packed[(int) (position >>> 3)] >>> (7 - (position & 7)) & 1);
+            }
+            samples[i] = value;
+        }
+        return samples;
+    }
+
+    public DecodeStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return      grąžina, kiek baitų (supakuotų paveiksliuko reikšmių) nusiųsta kiekvienu būdu.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getUncodedBitErrors() {
+        return uncodedBitErrors;
+    }
+
+    public long getCodedBitErrors() {
+        return codedBitErrors;
+    }
+
+    /**
+     * @return      grąžina be kodo siųsto paveiksliuko kokybės rodiklius.
+     */
+    public ImageQuality getUncodedQuality() {
+        return uncodedQuality;
+    }
+
+    /**
+     * @return      grąžina su kodu siųsto ir dekoduoto paveiksliuko kokybės rodiklius.
+     */
+    public ImageQuality getCodedQuality() {
+        return codedQuality;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    private static class Strip {
+
+        final int y;
+        final ComparisonPipeline pipeline;
+        final ImageQuality uncodedQuality;
+        final ImageQuality codedQuality;
+        Raster uncoded;
+        Raster coded;
+
+        Strip(int y, ComparisonPipeline pipeline, int[] sampleSizes) {
+            this.y = y;
+            this.pipeline = pipeline;
+            uncodedQuality = new ImageQuality(sampleSizes);
+            codedQuality = new ImageQuality(sampleSizes);
+        }
+
+    }
+
+    /**
+     * TIFF failas, kuriam iš pradžių paruošiamas tuščias paveiksliukas, o paskui juostos įrašomos į savo vietas.
+     */
+    private class Output implements AutoCloseable {
+
+        private final ImageOutputStream stream;
+        private final ImageWriter writer;
+
+        Output(Path path, ImageTypeSpecifier type) throws IOException {
+            Files.deleteIfExists(path); // TIFF rašytojas bando skaityti jau esantį failą.
+            writer = ImageIO.getImageWritersByFormatName("tiff").next();
+            stream = ImageIO.createImageOutputStream(path.toFile());
+            writer.setOutput(stream);
+            writer.prepareWriteEmpty(null, type, width, height, null, null, null);
+        }
+
+        void write(Raster raster, int y) throws IOException {
+            writer.prepareReplacePixels(0, new Rectangle(0, y, raster.getWidth(), raster.getHeight()));
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setDestinationOffset(new Point(0, y));
+            writer.replacePixels(raster, param);
+            writer.endReplacePixels();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.endWriteEmpty();
+            } finally {
+                writer.dispose();
+                stream.close();
+            }
+        }
+
+    }
+
+}
@@ -2,7 +2,8 @@ package scenarios;
 
 import channels.Channel;
 import data.CodeData;
-import data.SyndromeTable;
+import decoders.DecodeResult;
+import decoders.Decoder;
 import utils.CodeMath;
 import utils.TextUtils;
 import java.util.Scanner;
@@ -18,12 +19,14 @@ public class FirstScenario {
     private int[] code;
     private final Scanner input;
     private int[] corruptedCode;
-    private final SyndromeTable syndromeTable;
-    private int[] decodedCode;
+    private final Decoder decoder;
+    private final Channel channel;
+    private DecodeResult decodeResult;
 
-    public FirstScenario(CodeData codeData, SyndromeTable syndromeTable, Scanner scanner) {
+    public FirstScenario(CodeData codeData, Decoder decoder, Channel channel, Scanner scanner) {
         this.codeData = codeData;
-        this.syndromeTable = syndromeTable;
+        this.decoder = decoder;
+        this.channel = channel;
         input = scanner;
     }
 
@@ -36,7 +39,7 @@ public class FirstScenario {
         sendViaChannel();
         reportErrors();
         changeBeforeDecode(); // Vartotojas gali modifikuoti iš kanalo gautą vektorių prieš algoritmui dekoduojant.
-        decodedCode = CodeMath.decodeVector(syndromeTable, codeData, corruptedCode);
+        decodeResult = decoder.decode(corruptedCode);
         printDecodedVector();
     }
 
@@ -60,7 +63,7 @@ public class FirstScenario {
      * Žinutės užkodavimas bei užkoduoto vektoriaus spausdinimas.
      */
     private void encodeMessage() {
-        code = CodeMath.encodeVector(message, codeData.getMatrix(), codeData.getK(), codeData.getN());
+        code = codeData.encode(message);
         System.out.println("Štai užkoduotas vektorius:");
         TextUtils.printCodedVector(code);
     }
@@ -69,10 +72,9 @@ public class FirstScenario {
      * Kodo siuntimas nepatikimu kanalu. Iškraipyto vektoriaus gavimas bei išspausdinimas.
      */
     private void sendViaChannel() {
-        Channel channel = new Channel(codeData.getErrorChance());
         corruptedCode = channel.transmit(code);
         System.out.println("Kodas buvo nusiųstas kanalu, " +
-                "kurio iškraipymo tikimybė: " + codeData.getErrorChance() + ". " +
+                "kurio iškraipymo tikimybė: " + channel.getErrorChance() + ". " +
                 "Štai koks vektorius buvo gautas kanalo gale:");
         TextUtils.printCodedVector(corruptedCode);
     }
@@ -112,7 +114,12 @@ public class FirstScenario {
      * Išspausdinamas atkoduotas vektorius (vienetinės matricos atveju tiesiog paimam vektoriaus pradžią ilgio k).
      */
     private void printDecodedVector() {
-        System.out.println("Atkoduotas vektorius: " + TextUtils.codeToMessage(decodedCode, codeData.getK()));
+        if(!decodeResult.isSuccess()) {
+            System.out.println("Vektoriaus dekoduoti nepavyko (padaryta per daug klaidų). Išbandyta pozicijų: " +
+                    decodeResult.getTriedPositions() + ".");
+            return;
+        }
+        System.out.println("Atkoduotas vektorius: " + TextUtils.codeToMessage(decodeResult.getDecoded(), codeData.getK()));
     }
 
 }
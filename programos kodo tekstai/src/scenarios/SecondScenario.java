@@ -2,10 +2,14 @@ package scenarios;
 
 import channels.Channel;
 import data.CodeData;
-import data.SyndromeTable;
-import utils.CodeMath;
-import utils.TextUtils;
-import java.math.BigInteger;
+import decoders.Decoder;
+import metrics.ConversionEvent;
+import metrics.ScenarioPhaseEvent;
+import pipeline.ComparisonPipeline;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
 /**
@@ -14,18 +18,16 @@ import java.util.Scanner;
 public class SecondScenario {
 
     private final CodeData codeData;
-    private final SyndromeTable syndromeTable;
+    private final Decoder decoder;
     private final Scanner input;
-    private String binaryText = "";
-    private int[][] vectors;
+    private byte[] textBytes;
     private final Channel channel;
-    private int additionalBitsToAdd;
 
-    public SecondScenario(CodeData codeData, SyndromeTable syndromeTable, Scanner scanner) {
+    public SecondScenario(CodeData codeData, Decoder decoder, Channel channel, Scanner scanner) {
         this.codeData = codeData;
-        this.syndromeTable = syndromeTable;
+        this.decoder = decoder;
         input = scanner;
-        channel = new Channel(codeData.getErrorChance());
+        this.channel = channel;
     }
 
     /**
@@ -33,18 +35,14 @@ public class SecondScenario {
      */
     public void start() {
         readText();
-        vectors = CodeMath.splitToVectors(binaryText, codeData);
-        additionalBitsToAdd = codeData.getK() - binaryText.length() % codeData.getK();
-        if(additionalBitsToAdd == codeData.getK()) additionalBitsToAdd = 0;
-        sendWithoutCoding();
-        sendWithCoding();
+        sendWithAndWithoutCoding();
     }
 
     /**
      * Prašoma vartotojo įvesti tekstą. Tekstas gali būti trumpas arba ilgas, vienos eilučių arba daugiau.
      * Kad būtų pagreintintas programos veikimas naudojame StringBuilder (nes "String" yra "immutable").
      * Kad būtų baigtas teksto nuskaitymas, tuščioje eilutėje reikia nuspausti "Enter".
-     * Įvestas tekstas konvertuojamas į bitų seką.
+     * Įvestas tekstas konvertuojamas į baitus.
      */
     private void readText() {
         System.out.println("Prašome įvesti tekstą. Tekstas gali būti sudarytas iš vienos daugiau eilučių." +
@@ -59,33 +57,52 @@ public class SecondScenario {
             System.out.println("Neįvedėte teksto, programa baigia darbą.");
             System.exit(0);
         }
-        binaryText = new BigInteger(textData.toString().getBytes()).toString(2);
+        ConversionEvent event = new ConversionEvent(2, "text->bits");
+        event.begin();
+        textBytes = textData.toString().getBytes();
+        event.bytesProcessed = textBytes.length;
+        event.commit();
     }
 
     /**
-     * Nepatikimu kanalu siunčiamas neužkoduotas pranešimas. Kanalo gale pasirodęs pranešimas iš bitų sekos
-     * verčiamas į eilutę ir išspausdinamas.
+     * Tekstas vienu perėjimu siunčiamas nepatikimu kanalu neužkoduotas ir užkoduotas: kiekviena teksto dalis iškart
+     * siunčiama abiem būdais. Kanalo gale pasirodę pranešimai verčiami į eilutes ir išspausdinami.
      */
-    private void sendWithoutCoding() {
-        System.out.println("Jūsų įvestą tekstą siunčiame neužkoduotą kanalu, " +
-                "kuriame tikimybė padaryti klaidą lygi " + codeData.getErrorChance() + ".");
-        int[][] corruptedVectors = new int[vectors.length][codeData.getK()];
-        for(int i = 0; i < vectors.length; i++) {
-            corruptedVectors[i] = channel.transmit(vectors[i]);
+    private void sendWithAndWithoutCoding() {
+        System.out.println("Jūsų įvestą tekstą siunčiame neužkoduotą ir užkoduotą tuo pačiu kanalu, " +
+                "kuriame tikimybė padaryti klaidą lygi " + channel.getErrorChance() + ".");
+        ScenarioPhaseEvent event = new ScenarioPhaseEvent(2, "compare-transmit", codeData.getK(), codeData.getN());
+        event.begin();
+        ComparisonPipeline pipeline = new ComparisonPipeline(codeData, channel, decoder);
+        ByteArrayOutputStream uncoded = new ByteArrayOutputStream(textBytes.length);
+        ByteArrayOutputStream coded = new ByteArrayOutputStream(textBytes.length);
+        try {
+            pipeline.run(new ByteArrayInputStream(textBytes), uncoded, coded);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e); // Atminties srautai šios klaidos nemeta.
         }
-        String corruptedText = TextUtils.getCorruptedText(corruptedVectors, false, codeData, additionalBitsToAdd);
-        System.out.println("Kanalo gale pasirodė štai toks pranešimas: " + corruptedText);
+        event.vectorCount = pipeline.getStatistics().getDecodedWords();
+        event.bytesProcessed = pipeline.getBytes();
+        event.commit();
+        System.out.println("Neužkoduoto teksto kanalo gale pasirodė štai toks pranešimas: " + reassembleText(uncoded));
+        System.out.println("Užkoduoto teksto kanalo gale pasirodė štai toks pranešimas: " + reassembleText(coded));
+        System.out.println("Klaidingų bitų be kodo: " + pipeline.getUncodedBitErrors() + ", su kodu: " +
+                pipeline.getCodedBitErrors() + ".");
+        System.out.println("Klaidos tikimybė: " + channel.getErrorChance() + ". " + pipeline.getStatistics());
     }
 
     /**
-     * Nepatikimu kanalu siunčiamas pranešimas prieš tai yra užkoduojamas. Kanalo gale pasirodžiusi bitų seka
-     * yra dekoduojama, tada verčiama į eilutę ir išspausdinama.
+     * Iš kanalo gauti baitai verčiami atgal į tekstą.
+     * @param received      iš kanalo gauti (galimai iškraipyti) baitai.
+     * @return              grąžinamas galimai iškraipytas tekstas.
      */
-    private void sendWithCoding() {
-        System.out.println("Jūsų įvestą tekstą užkoduojame ir siunčiame tuo pačiu kanalu.");
-        int[][] newVectors = CodeMath.encodeSendDecode(vectors, codeData, channel, syndromeTable);
-        String corruptedText = TextUtils.getCorruptedText(newVectors, true, codeData, additionalBitsToAdd);
-        System.out.println("Kanalo gale pasirodė štai toks pranešimas: " + corruptedText);
+    private String reassembleText(ByteArrayOutputStream received) {
+        ConversionEvent event = new ConversionEvent(2, "bits->text");
+        event.begin();
+        String corruptedText = received.toString();
+        event.bytesProcessed = received.size();
+        event.commit();
+        return corruptedText;
     }
 
 }
@@ -2,16 +2,14 @@ package scenarios;
 
 import channels.Channel;
 import data.CodeData;
-import data.SyndromeTable;
-import utils.CodeMath;
-import utils.TextUtils;
-import javax.imageio.ImageIO;
+import decoders.Decoder;
+import metrics.ScenarioPhaseEvent;
+import pipeline.TiledImagePipeline;
 import java.awt.Desktop;
-import java.awt.Color;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
 import java.io.File;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.function.IntFunction;
 
 /**
  * Trečiojo scenarijaus vykdymas. Visi reikalavimai įgyvendinti.
@@ -19,21 +17,17 @@ import java.util.Scanner;
 public class ThirdScenario {
 
     private final CodeData codeData;
-    private final SyndromeTable syndromeTable;
+    private final Decoder decoder;
     private final Scanner input;
-    private BufferedImage image;
-    private byte[] pixels;
-    private int[][] vectors;
-    private int additionalBitsToAdd;
-    private String rgbBinary = "";
+    private File file;
     private final Channel channel;
     private Desktop desktop;
 
-    public ThirdScenario(CodeData codeData, SyndromeTable syndromeTable, Scanner scanner) {
+    public ThirdScenario(CodeData codeData, Decoder decoder, Channel channel, Scanner scanner) {
         this.codeData = codeData;
-        this.syndromeTable = syndromeTable;
+        this.decoder = decoder;
         input = scanner;
-        channel = new Channel(codeData.getErrorChance());
+        this.channel = channel;
     }
 
     /**
@@ -41,23 +35,18 @@ public class ThirdScenario {
      */
     public void start() {
         openFile();
-        convertByteArrayToBinary();
-        vectors = CodeMath.splitToVectors(rgbBinary, codeData);
-        additionalBitsToAdd = codeData.getK() - rgbBinary.length() % codeData.getK();
-        if(additionalBitsToAdd == codeData.getK()) additionalBitsToAdd = 0;
-        sendWithoutCode();
-        sendWithCode();
+        sendWithAndWithoutCode();
     }
 
     /**
-     * Vartotojo prašoma įvesti kelią iki paveiksliuko. Jeigu paveiksliukas egzistuoja, jis atidaromas
-     * parodomas. Bandoma jo spalvas konvertuoti į baitų masyvą. Nepasisekus, programa baigia darbą.
+     * Vartotojo prašoma įvesti kelią iki paveiksliuko. Jeigu paveiksliukas egzistuoja, jis atidaromas ir
+     * parodomas. Jeigu failas neegzistuoja, programa baigia darbą.
      */
     private void openFile() {
         System.out.println("Prašome įvesti kelią iki paveiksliuko:");
         String path = input.nextLine();
         try {
-            File file = new File(path);
+            file = new File(path);
             if (!Desktop.isDesktopSupported()) {
                 System.out.println("Neįmanoma prieiti prie darbalaukio ir atidaryti failo. Programa baigia darbą.");
                 System.exit(0);
@@ -66,8 +55,6 @@ public class ThirdScenario {
             if(file.exists()) {
                 System.out.println("Atidaromas failas-šaltinis.");
                 desktop.open(file);
-                image = ImageIO.read(file);
-                pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
             }
             else {
                 System.out.println("Nurodytas failas neegzistuoja. Programa baigia darbą");
@@ -75,98 +62,60 @@ public class ThirdScenario {
             }
         } catch(Exception e) {
             e.printStackTrace();
-            System.out.println("Bandant atidaryti ar nuskaityti failą įvyko klaida. Programa baigia darbą.");
+            System.out.println("Bandant atidaryti failą įvyko klaida. Programa baigia darbą.");
             System.exit(0);
         }
     }
 
     /**
-     * Baitų masyvas perkeliamas į eilutę, kurioje saugoma bitų seka.
-     * Iš kiekvieno baito nuskaitomas rgb formatas. Pirmiau mėlyna, tada žalia, tada raudona.
-     * Į eilutę spalvos tokia tvarka ir surašomos viena prie kitos. Tarp skirtingų rgb spalvų nėra
-     * jokio žymeklio. Jos bus atskiriamos žinant, kad viena spalva - vienas baitas. Vadinasi, viena rgb spalva
-     * yra 3 baitų ilgio.
-     * Naudojamas StringBuilder siekiant
-     * pagreitinti programos veikimą.
+     * Paveiksliukas skaitomas juostomis ir kiekviena juosta iškart siunčiama nepatikimu kanalu neužkoduota ir
+     * užkoduota ("TiledImagePipeline"), todėl viso paveiksliuko atmintyje laikyti nereikia. Juostos apdorojamos
+     * lygiagrečiai, kiekviena su savo to paties klaidų modelio kanalu. Įrašant ar atkuriant klaidų seką kanalas
+     * yra vienas, todėl juostos siunčiamos iš eilės. Abu gauti paveiksliukai įrašomi ir atidaromi, o jų kokybės
+     * rodikliai (PSNR, klaidingi taškai, baitai ir bitai), suskaičiuoti įrašant, išspausdinami.
      */
-    private void convertByteArrayToBinary() {
-        StringBuilder rgbBinaryBuilder = new StringBuilder();
-        for(int i = 0; i < pixels.length; i+=3) {
-            int blue = ((int) pixels[i] & 0xff);
-            int green = (((int) pixels[i + 1] & 0xff));
-            int red =  (((int) pixels[i + 2] & 0xff));
-            String r = TextUtils.addLeadingZerosToByte(Integer.toBinaryString(red));
-            String g = TextUtils.addLeadingZerosToByte(Integer.toBinaryString(green));
-            String b = TextUtils.addLeadingZerosToByte(Integer.toBinaryString(blue));
-            rgbBinaryBuilder.append(b).append(g).append(r);
-        }
-        rgbBinary = rgbBinaryBuilder.toString();
-    }
-
-    /**
-     * Bitų seka, kurioje nurodytos spalvos, siunčiama neužkoduota nepatikimu kanalu.
-     * Kanalo gale gauta bitų seka verčiama į spalvas. Sukuriamas ir atidaromas paveiksliukas.
-     */
-    private void sendWithoutCode() {
-        System.out.println("Failo spalvas siunčiame neužkoduotas kanalu, " +
-                "kurio klaidos tikimybė: " + codeData.getErrorChance() + ".");
-        int[][] corruptedColors = new int[vectors.length][codeData.getK()];
-        for(int i = 0; i < vectors.length; i++) {
-            corruptedColors[i] = channel.transmit(vectors[i]);
-        }
-        String corruptedBinary = TextUtils.getCorruptedBinary(corruptedColors, false, codeData, additionalBitsToAdd);
-        createNewImage(corruptedBinary, "bekodo.bmp");
-    }
-
-    /**
-     * Bitų seka, kurioje nurodytos spalvos, siunčiama užkodavus nepatikimu kanalu.
-     * Kanalo gale gauta bitų seka atkoduojama ir verčiama į spalvas. Sukuriamas ir atidaromas paveiksliukas.
-     */
-    private void sendWithCode() {
-        System.out.println("Failo spalvas užkoduojame ir siunčiame tuo pačiu kanalu.");
-        int[][] codedVectors = CodeMath.encodeSendDecode(vectors, codeData, channel, syndromeTable);
-        String corruptedBinary = TextUtils.getCorruptedBinary(codedVectors, true, codeData, additionalBitsToAdd);
-        createNewImage(corruptedBinary, "koduotas.bmp");
-    }
-
-    /**
-     * Iš galimai iškraipytos bitų sekos nuskaitomos spalvos (pirma mėlyna, tada žalia, tada raudona).
-     * Jos panaudojamos sukurti naujam, galimai pakeistam, paveiksliukui.
-     * Paveiksliukas sukuriamas laikinų failų "Temp" aplanke ir atidaromas.
-     * Jeigu nepavyksta sukurti ar atidaryti paveiksliuko, programa baigia darbą.
-     * @param corruptedBinary           iškraipyta bitų seka.
-     * @param tempFilePath              naujojo failo pavadinimas.
-     */
-    private void createNewImage(String corruptedBinary, String tempFilePath) {
-        File tempFile = null;
-        int m = 0;
-        BufferedImage changedImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
-        for(int i = 0; i < corruptedBinary.length(); i+= (8*3)) {
-            String blueByte = corruptedBinary.substring(i, i + 8);
-            String greenByte = corruptedBinary.substring(i + 8, i + 16);
-            String redByte = corruptedBinary.substring(i + 16, i + 24);
-            int blue = Integer.parseInt(blueByte, 2);
-            int green = Integer.parseInt(greenByte, 2);
-            int red = Integer.parseInt(redByte, 2);
-            Color color = new Color(red, green, blue);
-            int colorCode = color.getRGB();
-            int x = m % image.getWidth();
-            int y = m / image.getWidth();
-            changedImage.setRGB(x, y, colorCode);
-            m++;
-        }
+    private void sendWithAndWithoutCode() {
+        System.out.println("Failo spalvas siunčiame neužkoduotas ir užkoduotas tuo pačiu kanalu, " +
+                "kurio klaidos tikimybė: " + channel.getErrorChance() + ".");
+        boolean sharedChannel = !channel.isSplittable();
+        IntFunction<Channel> channels = sharedChannel ? strip -> channel : strip -> channel.split(new Random());
+        int threads = sharedChannel ? 1 : Runtime.getRuntime().availableProcessors();
+        TiledImagePipeline pipeline = new TiledImagePipeline(codeData, decoder, channels, threads);
+        File uncodedFile = null;
+        File codedFile = null;
+        ScenarioPhaseEvent event = new ScenarioPhaseEvent(3, "compare-transmit", codeData.getK(), codeData.getN());
+        event.begin();
         try {
-            tempFile = File.createTempFile("tempCodeTheoryFiles", tempFilePath);
-            ImageIO.write(changedImage, "bmp", tempFile);
+            uncodedFile = File.createTempFile("tempCodeTheoryFiles", "bekodo.tif");
+            codedFile = File.createTempFile("tempCodeTheoryFiles", "koduotas.tif");
+            pipeline.run(file.toPath(), uncodedFile.toPath(), codedFile.toPath());
         } catch(Exception e) {
             e.printStackTrace();
-            System.out.println("Nepavyko įrašyti iš kanalo grįžusio failo. Programa baigia darbą.");
+            System.out.println("Nepavyko nuskaityti paveiksliuko arba įrašyti iš kanalo grįžusio failo. " +
+                    "Programa baigia darbą.");
             System.exit(0);
         }
+        event.vectorCount = pipeline.getStatistics().getDecodedWords();
+        event.bytesProcessed = pipeline.getBytes();
+        event.commit();
+        openImage(uncodedFile);
+        openImage(codedFile);
+        System.out.println("Klaidingų bitų be kodo: " + pipeline.getUncodedBitErrors() + ", su kodu: " +
+                pipeline.getCodedBitErrors() + ".");
+        System.out.println("Klaidos tikimybė: " + channel.getErrorChance() + ". " + pipeline.getStatistics());
+        System.out.println("Paveiksliukas be kodo. " + pipeline.getUncodedQuality());
+        System.out.println("Paveiksliukas su kodu. " + pipeline.getCodedQuality());
+    }
+
+    /**
+     * Atidaromas iš kanalo gautų spalvų sukurtas paveiksliukas.
+     * @param imageFile     paveiksliuko failas laikinų failų aplanke.
+     */
+    private void openImage(File imageFile) {
         try {
-            if(tempFile.exists()) {
+            if(imageFile.exists()) {
                 System.out.println("Atidaromas failas, kuris buvo sukurtas atkodavus iš kanalo gautas spalvas.");
-                desktop.open(tempFile);
+                desktop.open(imageFile);
             }
         } catch(Exception e) {
             System.out.println("Nepavyko atidaryti naujai sukurto failo.");
@@ -0,0 +1,322 @@
+package server;
+
+import data.CodeData;
+import decoders.DecodeResult;
+import metrics.Metrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ilgai veikiantis vietinis kodavimo serveris. Kodo konfigūracijos ir sindromų lentelės sudaromos vieną kartą
+ * paleidžiant, o po to serveris per TCP arba Unix lizdą priima užkodavimo, siuntimo kanalu ir dekodavimo
+ * užklausas (žr. "Protocol"). Lizdai aptarnaujami neblokuojančiu NIO būdu vienoje gijoje, o pačios užklausos
+ * vykdomos darbinių gijų telkinyje. Vieno kliento užklausos vykdomos iš eilės, kad atsakymai grįžtų ta pačia
+ * tvarka, o skirtingų klientų - lygiagrečiai.
+ */
+public class CodingServer implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final Path METRICS_PATH = Path.of("serverio-rodikliai.json"); // Kur įrašomi rodikliai pagal komandą.
+
+    private final List<ServiceConfiguration> configurations;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    private boolean serving; // Ar jau iškviestas "serve" (saugomas "this" užraktu).
+
+    public CodingServer(SocketAddress address, List<ServiceConfiguration> configurations, int workerCount) throws IOException {
+        this.configurations = configurations;
+        selector = Selector.open();
+        if(address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        }
+        else {
+            serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        workers = Executors.newFixedThreadPool(workerCount);
+    }
+
+    /**
+     * Vieno kliento ryšio būsena.
+     */
+    private class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null); // Paskutinė užklausa.
+
+        private Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            channel.configureBlocking(false);
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        /**
+         * Nuskaitomi gauti baitai ir kiekviena pilna užklausa perduodama darbinėms gijoms.
+         */
+        private void read() throws IOException {
+            if(channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            while(readBuffer.remaining() >= Integer.BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if(length < Protocol.REQUEST_HEADER || length > Protocol.MAX_FRAME) {
+                    close();
+                    return;
+                }
+                if(readBuffer.remaining() < Integer.BYTES + length) break;
+                readBuffer.getInt();
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                int limit = readBuffer.limit();
+                readBuffer.limit(readBuffer.position() + length);
+                frame.put(readBuffer).flip();
+                readBuffer.limit(limit);
+                tail = tail.thenRunAsync(() -> respond(handle(frame)), workers);
+            }
+            readBuffer.compact();
+            if(!readBuffer.hasRemaining()) { // Užklausa netelpa į buferį - jis padidinamas.
+                ByteBuffer larger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                larger.put(readBuffer);
+                readBuffer = larger;
+            }
+        }
+
+        private void respond(ByteBuffer response) {
+            responses.add(response);
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        private void write() throws IOException {
+            ByteBuffer response;
+            while((response = responses.peek()) != null) {
+                channel.write(response);
+                if(response.hasRemaining()) return; // Lizdo buferis pilnas, bus tęsiama vėliau.
+                responses.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch(IOException ignored) {
+                // Ryšys vis tiek nutraukiamas.
+            }
+        }
+
+    }
+
+    /**
+     * Aptarnaujami lizdai, kol serveris uždaromas. Baigus darbą (ir įvykus klaidai) uždaromi visi klientų lizdai,
+     * serverio lizdas ir "Selector".
+     */
+    public void serve() throws IOException {
+        synchronized(this) {
+            if(!running) return;
+            serving = true;
+        }
+        try {
+            select();
+        } finally {
+            closeChannels();
+        }
+    }
+
+    private void select() throws IOException {
+        while(running) {
+            selector.select();
+            Connection connection;
+            while((connection = pendingWrites.poll()) != null) {
+                if(connection.key.isValid()) connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            for(SelectionKey key : selector.selectedKeys()) {
+                try {
+                    if(!key.isValid()) continue;
+                    if(key.isAcceptable()) {
+                        SocketChannel client = serverChannel.accept();
+                        if(client != null) new Connection(client);
+                        continue;
+                    }
+                    Connection client = (Connection) key.attachment();
+                    if(key.isReadable()) client.read();
+                    if(key.isValid() && key.isWritable()) client.write();
+                } catch(IOException e) {
+                    if(key.attachment() instanceof Connection) ((Connection) key.attachment()).close();
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * Uždaromi visi prie "Selector" užregistruoti lizdai (serverio ir klientų) ir pats "Selector".
+     * Kviečiama tik tos gijos, kuri aptarnauja lizdus, arba kai lizdai dar neaptarnaujami.
+     */
+    private void closeChannels() {
+        if(!selector.isOpen()) return;
+        for(SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch(IOException ignored) {
+                // Uždaromi likę lizdai.
+            }
+        }
+        try {
+            selector.close();
+        } catch(IOException ignored) {
+            // Lizdai jau uždaryti.
+        }
+    }
+
+    /**
+     * Įvykdoma viena užklausa. Bet kokia klaida grąžinama klientui kaip klaidos atsakymas.
+     * @param frame     užklausa be ilgio lauko.
+     * @return          grąžina paruoštą siųsti atsakymą.
+     */
+    private ByteBuffer handle(ByteBuffer frame) {
+        try {
+            byte operation = frame.get();
+            int configurationIndex = frame.get() & 0xff;
+            int vectorCount = frame.getInt();
+            if(configurationIndex >= configurations.size()) {
+                throw new IllegalArgumentException("Nėra konfigūracijos " + configurationIndex + ".");
+            }
+            ServiceConfiguration configuration = configurations.get(configurationIndex);
+            if(operation == Protocol.CONFIGURATION) return configurationResponse(configuration.getCodeData());
+            int k = configuration.getCodeData().getK();
+            int n = configuration.getCodeData().getN();
+            int inputWidth = operation == Protocol.ENCODE || operation == Protocol.ENCODE_TRANSMIT_DECODE ? k : n;
+            if(vectorCount < 0 || Protocol.packedSize(vectorCount, inputWidth) > frame.remaining()) {
+                throw new IllegalArgumentException("Neteisingas vektorių skaičius: " + vectorCount + ".");
+            }
+            int[][] vectors = Protocol.unpack(frame, vectorCount, inputWidth);
+            int failures = 0;
+            int outputWidth = n;
+            switch(operation) {
+                case Protocol.ENCODE:
+                    for(int i = 0; i < vectorCount; i++) vectors[i] = encode(configuration, vectors[i]);
+                    break;
+                case Protocol.TRANSMIT:
+                    for(int i = 0; i < vectorCount; i++) vectors[i] = configuration.getChannel().transmit(vectors[i]);
+                    break;
+                case Protocol.DECODE:
+                    for(int i = 0; i < vectorCount; i++) {
+                        DecodeResult result = configuration.getDecoder().decode(vectors[i]);
+                        if(!result.isSuccess()) failures++;
+                        vectors[i] = result.getDecoded();
+                    }
+                    break;
+                case Protocol.ENCODE_TRANSMIT_DECODE:
+                    for(int i = 0; i < vectorCount; i++) {
+                        int[] received = configuration.getChannel().transmit(encode(configuration, vectors[i]));
+                        DecodeResult result = configuration.getDecoder().decode(received);
+                        if(!result.isSuccess()) failures++;
+                        vectors[i] = result.getDecoded();
+                    }
+                    outputWidth = k; // Grąžinama tik informacinė dalis.
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nežinoma operacija: " + operation + ".");
+            }
+            return response(vectors, outputWidth, vectorCount, failures);
+        } catch(Exception e) {
+            byte[] message = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + Protocol.RESPONSE_HEADER + message.length);
+            response.putInt(Protocol.RESPONSE_HEADER + message.length).put(Protocol.ERROR).putInt(0).putInt(0)
+                    .put(message).flip();
+            return response;
+        }
+    }
+
+    private static int[] encode(ServiceConfiguration configuration, int[] message) {
+        return configuration.getContext().encode(message);
+    }
+
+    private static ByteBuffer configurationResponse(CodeData codeData) {
+        ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + Protocol.CONFIGURATION_RESPONSE);
+        response.putInt(Protocol.CONFIGURATION_RESPONSE).put(Protocol.OK).putInt(codeData.getK()).putInt(codeData.getN())
+                .putDouble(codeData.getErrorChance()).flip();
+        return response;
+    }
+
+    private static ByteBuffer response(int[][] vectors, int width, int vectorCount, int failures) {
+        int length = Protocol.RESPONSE_HEADER + Protocol.packedSize(vectors.length, width);
+        ByteBuffer response = ByteBuffer.allocate(Integer.BYTES + length);
+        response.putInt(length).put(Protocol.OK).putInt(vectorCount).putInt(failures);
+        Protocol.pack(vectors, width, response);
+        response.flip();
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean wasServing;
+        synchronized(this) {
+            running = false;
+            wasServing = serving;
+        }
+        workers.shutdown();
+        if(wasServing) selector.wakeup(); // Lizdus uždarys "serve", baigdamas ciklą.
+        else closeChannels();
+    }
+
+    /**
+     * Serverio paleidimas: adresas („prievadas“, „mazgas:prievadas“ arba „unix:kelias“) ir bet kiek konfigūracijų,
+     * kurių kiekvieną sudaro k, n, matricos generavimo "seed" ir klaidos tikimybė.
+     * Serveriui veikiant, įvedus „metrics“, dabartiniai veikimo rodikliai įrašomi į failą.
+     * Pvz.: 7000 4 12 1 0.01 12 24 2 0.02
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 5 || (args.length - 1) % 4 != 0) {
+            System.out.println("Naudojimas: CodingServer adresas k n seed klaidosTikimybė [k n seed klaidosTikimybė ...]");
+            return;
+        }
+        Metrics.initializeEvents();
+        List<ServiceConfiguration> configurations = new ArrayList<>();
+        for(int i = 1; i < args.length; i += 4) {
+            configurations.add(new ServiceConfiguration(Integer.parseInt(args[i]), Integer.parseInt(args[i + 1]),
+                    Long.parseLong(args[i + 2]), Double.parseDouble(args[i + 3])));
+            System.out.println("Konfigūracija " + (configurations.size() - 1) + " paruošta: k = " + args[i] +
+                    ", n = " + args[i + 1] + ".");
+        }
+        SocketAddress address = Protocol.parseAddress(args[0]);
+        try(CodingServer server = new CodingServer(address, configurations, Runtime.getRuntime().availableProcessors())) {
+            Metrics.dumpOnCommand(METRICS_PATH);
+            System.out.println("Serveris laukia užklausų: " + address + ". Įveskite „" + Metrics.DUMP_COMMAND +
+                    "“, kad veikimo rodikliai būtų įrašyti į failą " + METRICS_PATH + ".");
+            server.serve();
+        }
+    }
+
+}
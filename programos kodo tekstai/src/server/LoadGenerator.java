@@ -0,0 +1,152 @@
+package server;
+
+import metrics.LatencyHistogram;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Apkrovos generatorius kodavimo serveriui matuoti. Keli klientai vienu metu siunčia užkodavimo-siuntimo-dekodavimo
+ * užklausas su atsitiktiniais vektoriais ir matuoja kiekvienos užklausos trukmę. Pabaigoje išspausdinama
+ * užklausų ir vektorių sparta bei trukmių procentiliai (įskaitant retas, ilgiausias užklausas).
+ */
+public class LoadGenerator {
+
+    private final SocketAddress address;
+    private final int configuration;
+    private final int vectorsPerRequest;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public LoadGenerator(SocketAddress address, int configuration, int vectorsPerRequest) {
+        this.address = address;
+        this.configuration = configuration;
+        this.vectorsPerRequest = vectorsPerRequest;
+    }
+
+    /**
+     * Vykdoma apkrova nurodytą laiką.
+     * @param clients       kiek klientų siunčia užklausas vienu metu.
+     * @param seconds       kiek sekundžių siunčiama.
+     */
+    public void run(int clients, int seconds) throws IOException, InterruptedException {
+        int k = requestDimension();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        List<IOException> errors = new ArrayList<>();
+        for(int i = 0; i < clients; i++) {
+            long seed = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    runClient(k, deadline, new Random(seed));
+                } catch(IOException e) {
+                    synchronized(errors) {
+                        errors.add(e);
+                    }
+                }
+            }, "load-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for(Thread thread : threads) thread.join();
+        if(!errors.isEmpty()) throw errors.get(0);
+        printReport(seconds);
+    }
+
+    /**
+     * Iš serverio sužinomi konfigūracijos parametrai; apkrovai sudaryti reikia tik dimensijos k.
+     */
+    private int requestDimension() throws IOException {
+        try(SocketChannel channel = SocketChannel.open(address)) {
+            ByteBuffer request = ByteBuffer.allocate(Integer.BYTES + Protocol.REQUEST_HEADER);
+            request.putInt(Protocol.REQUEST_HEADER).put(Protocol.CONFIGURATION).put((byte) configuration).putInt(0).flip();
+            ByteBuffer response = exchange(channel, request);
+            if(response.remaining() != Protocol.CONFIGURATION_RESPONSE) {
+                throw new IOException("Netinkamas konfigūracijos atsakymas.");
+            }
+            response.position(Byte.BYTES);
+            int k = response.getInt();
+            int n = response.getInt();
+            double errorChance = response.getDouble();
+            System.out.println("Konfigūracija " + configuration + ": k = " + k + ", n = " + n + ", p = " + errorChance + ".");
+            return k;
+        }
+    }
+
+    private void runClient(int k, long deadline, Random random) throws IOException {
+        try(SocketChannel channel = SocketChannel.open(address)) {
+            int[][] vectors = new int[vectorsPerRequest][k];
+            int length = Protocol.REQUEST_HEADER + Protocol.packedSize(vectorsPerRequest, k);
+            ByteBuffer request = ByteBuffer.allocate(Integer.BYTES + length);
+            while(System.nanoTime() < deadline) {
+                for(int[] vector : vectors) {
+                    for(int i = 0; i < k; i++) vector[i] = random.nextInt(2);
+                }
+                request.clear();
+                request.putInt(length).put(Protocol.ENCODE_TRANSMIT_DECODE).put((byte) configuration).putInt(vectorsPerRequest);
+                Protocol.pack(vectors, k, request);
+                request.flip();
+                long start = System.nanoTime();
+                ByteBuffer response = exchange(channel, request);
+                latencies.record(System.nanoTime() - start);
+                requests.increment();
+                failures.add(response.getInt(Byte.BYTES + Integer.BYTES));
+            }
+        }
+    }
+
+    /**
+     * Išsiunčiama užklausa ir sulaukiama atsakymo.
+     * @return      grąžina atsakymą be ilgio lauko.
+     */
+    private static ByteBuffer exchange(SocketChannel channel, ByteBuffer request) throws IOException {
+        while(request.hasRemaining()) channel.write(request);
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, lengthBuffer);
+        ByteBuffer response = ByteBuffer.allocate(lengthBuffer.getInt(0));
+        readFully(channel, response);
+        response.flip();
+        if(response.get(0) != Protocol.OK) {
+            byte[] message = new byte[response.remaining() - Protocol.RESPONSE_HEADER];
+            response.position(Protocol.RESPONSE_HEADER);
+            response.get(message);
+            throw new IOException("Serveris grąžino klaidą: " + new String(message));
+        }
+        return response;
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0) throw new IOException("Serveris nutraukė ryšį.");
+        }
+    }
+
+    private void printReport(int seconds) {
+        long total = requests.sum();
+        System.out.printf("Užklausų: %d (%.1f per sekundę), vektorių: %.1f per sekundę, nepavykusių dekodavimų: %d.%n",
+                total, (double) total / seconds, (double) total * vectorsPerRequest / seconds, failures.sum());
+        System.out.printf("Užklausos trukmė (µs): p50 = %.1f, p90 = %.1f, p99 = %.1f, p99.9 = %.1f, max = %.1f.%n",
+                latencies.getPercentile(50) / 1e3, latencies.getPercentile(90) / 1e3,
+                latencies.getPercentile(99) / 1e3, latencies.getPercentile(99.9) / 1e3, latencies.getMax() / 1e3);
+    }
+
+    /**
+     * Paleidimas: adresas, konfigūracijos numeris, klientų skaičius, vektorių skaičius užklausoje ir trukmė sekundėmis.
+     * Pvz.: 7000 0 8 64 10
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length != 5) {
+            System.out.println("Naudojimas: LoadGenerator adresas konfigūracija klientai vektoriaiUžklausoje sekundės");
+            return;
+        }
+        new LoadGenerator(Protocol.parseAddress(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[3]))
+                .run(Integer.parseInt(args[2]), Integer.parseInt(args[4]));
+    }
+
+}
@@ -0,0 +1,98 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Kodavimo serverio ir jo klientų bendras dvejetainis protokolas.
+ * Užklausa: ilgis (int, likusių baitų skaičius), operacija (byte), konfigūracijos numeris (byte),
+ * vektorių skaičius (int) ir vektorių bitai, supakuoti po 8 į baitą (nuo aukščiausiojo bito).
+ * Atsakymas: ilgis (int), būsena (byte), vektorių skaičius (int), nepavykusių dekodavimų skaičius (int) ir
+ * supakuoti vektorių bitai. Jeigu būsena nelygi OK, vietoje vektorių siunčiamas klaidos tekstas (UTF-8).
+ * Atsakymas į CONFIGURATION užklausą turi savo turinį: ilgis (int), būsena (byte), k (int), n (int) ir kanalo
+ * klaidos tikimybė p (double). Klaidos atveju jis toks pat, kaip ir kitų operacijų.
+ */
+public final class Protocol {
+
+    // Operacijos.
+    public static final byte ENCODE = 1; // k ilgio vektoriai -> n ilgio kodo žodžiai.
+    public static final byte TRANSMIT = 2; // n ilgio vektoriai -> per kanalą perleisti n ilgio vektoriai.
+    public static final byte DECODE = 3; // n ilgio vektoriai -> dekoduoti n ilgio vektoriai.
+    public static final byte ENCODE_TRANSMIT_DECODE = 4; // k ilgio vektoriai -> k ilgio vektoriai po visos grandinės.
+    public static final byte CONFIGURATION = 5; // Be vektorių; atsakyme - konfigūracijos k, n ir p.
+
+    // Atsakymo būsenos.
+    public static final byte OK = 0;
+    public static final byte ERROR = 1;
+
+    public static final int REQUEST_HEADER = Byte.BYTES + Byte.BYTES + Integer.BYTES;
+    public static final int RESPONSE_HEADER = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    public static final int CONFIGURATION_RESPONSE = Byte.BYTES + Integer.BYTES + Integer.BYTES + Double.BYTES;
+    public static final int MAX_FRAME = 1 << 24;
+
+    private Protocol() {
+    }
+
+    /**
+     * Adresas užrašomas „unix:kelias“ (Unix lizdas) arba „prievadas“ / „mazgas:prievadas“ (TCP).
+     * @param text      adreso užrašas.
+     * @return          grąžina lizdo adresą.
+     */
+    public static SocketAddress parseAddress(String text) {
+        if(text.startsWith("unix:")) return UnixDomainSocketAddress.of(Path.of(text.substring("unix:".length())));
+        int colon = text.lastIndexOf(':');
+        if(colon < 0) return new InetSocketAddress("127.0.0.1", Integer.parseInt(text));
+        return new InetSocketAddress(text.substring(0, colon), Integer.parseInt(text.substring(colon + 1)));
+    }
+
+    /**
+     * @return      grąžina, kiek baitų užima supakuoti vektoriai.
+     */
+    public static int packedSize(int vectorCount, int width) {
+        return (int) (((long) vectorCount * width + 7) / 8);
+    }
+
+    /**
+     * Vektorių bitai supakuojami po 8 į baitą ir įrašomi į buferį.
+     */
+    public static void pack(int[][] vectors, int width, ByteBuffer buffer) {
+        int current = 0;
+        int bits = 0;
+        for(int[] vector : vectors) {
+            for(int i = 0; i < width; i++) {
+                current = (current << 1) | vector[i];
+                if(++bits == 8) {
+                    buffer.put((byte) current);
+                    current = 0;
+                    bits = 0;
+                }
+            }
+        }
+        if(bits != 0) buffer.put((byte) (current << (8 - bits)));
+    }
+
+    /**
+     * Iš buferio nuskaitomi supakuoti vektorių bitai.
+     */
+    public static int[][] unpack(ByteBuffer buffer, int vectorCount, int width) throws IOException {
+        if(buffer.remaining() < packedSize(vectorCount, width)) throw new IOException("Per mažai vektorių duomenų.");
+        int[][] vectors = new int[vectorCount][width];
+        int current = 0;
+        int bits = 0;
+        for(int[] vector : vectors) {
+            for(int i = 0; i < width; i++) {
+                if(bits == 0) {
+                    current = buffer.get() & 0xff;
+                    bits = 8;
+                }
+                vector[i] = (current >>> --bits) & 1;
+            }
+        }
+        return vectors;
+    }
+
+}
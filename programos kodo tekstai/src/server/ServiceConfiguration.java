@@ -0,0 +1,60 @@
+package server;
+
+import channels.Channel;
+import data.CodeContext;
+import data.CodeData;
+import decoders.Decoder;
+import decoders.MeteredDecoder;
+import decoders.StepByStepDecoder;
+import utils.CodeMath;
+import java.util.Random;
+
+/**
+ * Viena serverio aptarnaujama kodo konfigūracija. Kodo kontekstas ("CodeContext": dalių lentelės ir sindromų
+ * lentelė) sudaromas vieną kartą ir yra nekeičiamas, todėl jį vienu metu naudoja visos serverio gijos. Kanalas turi
+ * būseną, todėl kiekviena gija turi savo kanalą.
+ */
+public class ServiceConfiguration {
+
+    private static final int SPARSE_TABLE_MAX_WEIGHT = 3;
+
+    private final CodeContext context;
+    private final Decoder decoder;
+    private final ThreadLocal<Channel> channels;
+
+    /**
+     * @param k             kodo dimensija.
+     * @param n             kodo ilgis.
+     * @param seed          atsitiktinių skaičių generatoriaus pradinė reikšmė, pagal kurią sugeneruojama matrica.
+     * @param errorChance   kanalo klaidos tikimybė.
+     */
+    public ServiceConfiguration(int k, int n, long seed, double errorChance) {
+        this(new CodeData(k, n, CodeMath.generateMatrix(k, n - k, new Random(seed)), errorChance));
+    }
+
+    public ServiceConfiguration(CodeData codeData) {
+        context = new CodeContext(codeData, SPARSE_TABLE_MAX_WEIGHT);
+        decoder = new MeteredDecoder(new StepByStepDecoder(context));
+        channels = ThreadLocal.withInitial(() -> new Channel(codeData.getErrorChance()));
+    }
+
+    public CodeData getCodeData() {
+        return context.getCodeData();
+    }
+
+    public CodeContext getContext() {
+        return context;
+    }
+
+    public Decoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * @return      grąžina šios gijos kanalą.
+     */
+    public Channel getChannel() {
+        return channels.get();
+    }
+
+}
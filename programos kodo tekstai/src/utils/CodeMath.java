@@ -1,10 +1,9 @@
 package utils;
 
-import channels.Channel;
-import data.CodeData;
-import data.SyndromeTable;
+import metrics.Metrics;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.Random;
-import java.util.HashMap;
 
 /**
  * Šioje klasėje įgyvendinama didžioji dalis kodo logikos.
@@ -12,6 +11,8 @@ import java.util.HashMap;
  */
 public class CodeMath {
 
+    private static final LongAdder ENCODED_WORDS = Metrics.counter(Metrics.WORDS_ENCODED);
+
     // Kadangi matrica neturi vienetinės dalies, dauginimas gali vykti taip, turint int m = 0 pridedam prie sumos m
     // pozicijos bitą, kitam rate m padidinam.
 
@@ -22,7 +23,17 @@ public class CodeMath {
      * @return          grąžina atsitiktinai sugeneruotą matricą iš bitų.
      */
     public static int[][] generateMatrix(int rows, int columns) {
-        Random random = new Random();
+        return generateMatrix(rows, columns, new Random());
+    }
+
+    /**
+     * Sugeneruojama atsitiktinė matrica be vienetinės dalies naudojant nurodytą atsitiktinių skaičių generatorių.
+     * @param rows      kodo dimensija (k).
+     * @param columns   kodo žodžio ilgis minus dimensija (n-k)
+     * @param random    atsitiktinių skaičių generatorius (pvz. su nustatytu "seed", kad rezultatą būtų galima pakartoti).
+     * @return          grąžina atsitiktinai sugeneruotą matricą iš bitų.
+     */
+    public static int[][] generateMatrix(int rows, int columns, Random random) {
         int[][] matrix = new int[rows][columns];
         for(int i = 0; i < rows; i++) {
             for(int r = 0; r < columns; r++) {
@@ -33,58 +44,91 @@ public class CodeMath {
     }
 
     /**
-     * Grandininio ("step-by-step") kodo realizacija.
-     * Pasinaudojus syndromų lentele, atsekant lyderių svorius dekoduojamas vektorius.
-     * Siekama gauti nulinį sindromą, kurio lyderio svoris yra 0 (nes tai reiškia, kad vektorius priklauso kodui,
-     * kadangi sudauginus kontrolinę matricą su transponuotu kodo žodžiu turi gautis nulinis sindromas).
-     * @param syndromeTable     programos pradžioje sugeneruota sindromų lentelė.
-     * @param codeData          programos pradžioje vartotojo įvesti ir programos papildyti kodo parametrai.
-     * @param corruptedCode     vektorius, kurį siekiama dekoduoti.
-     * @return                  jeigu iškraipytas vektorius turėjo tiek klaidų,
-     * kiek algoritmas geba ištaisyti, grąžinamas kodo žodis.
-     * Jei klaidų buvo padaryta daugiau, grąžinamas galimai neteisingas dekoduotas vektorius.
+     * Sugeneruojama reta atsitiktinė matrica be vienetinės dalies: kiekvienoje eilutėje lygiai weight vienetų
+     * atsitiktinėse skirtingose pozicijose. Tokia matrica tinka ilgiems kodams, dekoduojamiems keičiant bitus.
+     * Matrica grąžinama retuoju pavidalu (žr. "sparseRows"), todėl atmintis priklauso nuo vienetų skaičiaus.
+     * @param rows      kodo dimensija (k).
+     * @param columns   kodo žodžio ilgis minus dimensija (n-k).
+     * @param weight    vienetų skaičius eilutėje (ne didesnis nei columns).
+     * @param random    atsitiktinių skaičių generatorius.
+     * @return          grąžina kiekvienos eilutės vienetų stulpelius didėjimo tvarka.
      */
-    public static int[] decodeVector(SyndromeTable syndromeTable, CodeData codeData, int[] corruptedCode) {
-        HashMap<String, Integer> syndromeMapping = syndromeTable.getSyndromeLeaderMapping();
-        String codeSyndrome = TextUtils.intArrayToString(codeData.calculateSyndrome(corruptedCode));
-        int oldWeight = syndromeMapping.get(codeSyndrome);
-        if(oldWeight == 0) return corruptedCode;
-        int m = 0; // Žingsninis pozicijos sekiklis (kur jis rodys, ten keisime bitus).
-        while(true) {
-            corruptedCode[m] = CodeMath.changeBit(corruptedCode[m]);
-            codeSyndrome = TextUtils.intArrayToString(codeData.calculateSyndrome(corruptedCode));
-            int weight = syndromeMapping.get(codeSyndrome);
-            if(weight == 0) return corruptedCode;
-            if(weight >= oldWeight) {
-                corruptedCode[m] = CodeMath.changeBit(corruptedCode[m]);
+    public static int[][] generateSparseRows(int rows, int columns, int weight, Random random) {
+        int[][] matrix = new int[rows][weight];
+        for(int i = 0; i < rows; i++) {
+            int placed = 0;
+            while(placed < weight) {
+                int r = random.nextInt(columns);
+                boolean taken = false;
+                for(int j = 0; j < placed && !taken; j++) taken = matrix[i][j] == r;
+                if(!taken) matrix[i][placed++] = r;
             }
-            else oldWeight = weight;
-            m++;
+            Arrays.sort(matrix[i]);
         }
+        return matrix;
+    }
+
+    /**
+     * Matrica iš bitų perrašoma retuoju pavidalu: kiekvienai eilutei - stulpeliai, kuriuose yra vienetai.
+     * @param matrix    matrica iš bitų.
+     * @return          grąžina kiekvienos eilutės vienetų stulpelius didėjimo tvarka.
+     */
+    public static int[][] sparseRows(int[][] matrix) {
+        int[][] rows = new int[matrix.length][];
+        for(int i = 0; i < matrix.length; i++) {
+            int weight = 0;
+            for(int bit : matrix[i]) if(bit != 0) weight++;
+            rows[i] = new int[weight];
+            for(int r = 0, j = 0; r < matrix[i].length; r++) {
+                if(matrix[i][r] != 0) rows[i][j++] = r;
+            }
+        }
+        return rows;
     }
 
     /**
      * Vektoriaus užkodavimas. Kadangi programa dirba tik su vienetinėmis matricomis įėjusi žinutė m užkoduojama
      * prie jos pridedant m sudauginta su nevienetinės generuojančios matricos dalies duomenimis (t.y. c = m + m x Glikęs).
+     * Matrica paduodama retuoju pavidalu, todėl kiekvienam žinutės vienetui pakeičiami tik jo eilutės vienetų bitai.
      * @param message               žinutė, kurią norima užkoduoti.
-     * @param generatingMatrix      generuojanti matrica, kuria bus užkoduojama žinutė.
+     * @param generatingRows        generuojančios matricos (be vienetinės dalies) eilučių vienetų stulpeliai.
      * @param k                     kodo dimensija.
      * @param n                     kodo žodžio ilgis.
      * @return                      vektorių, priklausantį kodo žodžių aibei.
      */
-    public static int[] encodeVector(int[] message, int[][] generatingMatrix, int k, int n) {
+    public static int[] encodeVector(int[] message, int[][] generatingRows, int k, int n) {
         int[] code = new int[n];
         if (k >= 0) System.arraycopy(message, 0, code, 0, k);
         for(int i = 0; i < k; i++) {
-            for(int r = k; r < n; r++) {
-                int shift = r - k;
-                code[r] += (message[i] * generatingMatrix[i][shift]);
-                code[r] %= 2;
-            }
+            if(message[i] == 0) continue;
+            for(int column : generatingRows[i]) code[k + column] ^= 1;
         }
+        ENCODED_WORDS.increment();
         return code;
     }
 
+    /**
+     * Generuojančios matricos eilutės (kartu su vienetine dalimi) supakuojamos į "long": j-tasis eilutės elementas
+     * yra j-tasis skaičiaus bitas.
+     * @param matrix    generuojanti matrica be vienetinės dalies.
+     * @param k         kodo dimensija.
+     * @param n         kodo žodžio ilgis (ne didesnis nei 64).
+     * @return          grąžina k ilgio supakuotų eilučių masyvą.
+     */
+    public static long[] packGeneratorRows(int[][] matrix, int k, int n) {
+        if(n > Long.SIZE) {
+            throw new IllegalArgumentException("Supakuotos generuojančios matricos eilutės galimos tik kai n <= " + Long.SIZE + ".");
+        }
+        long[] rows = new long[k];
+        for(int i = 0; i < k; i++) {
+            rows[i] = 1L << i; // Vienetinė dalis.
+            for(int r = 0; r < (n-k); r++) {
+                if(matrix[i][r] != 0) rows[i] |= 1L << (k + r);
+            }
+        }
+        return rows;
+    }
+
     /**
      * Invertuojamas duotasis bitas.
      * @param bit       bitas, kurį norima invertuoti.
@@ -140,48 +184,4 @@ public class CodeMath {
         return difference;
     }
 
-    /**
-     * Norimos žinutės užkodavimas, siuntimas kanalu, klaidų ištaisymas..
-     * @param vectors           pradinė žinutė.
-     * @param codeData          kodo parametrai.
-     * @param channel           nepatikimas kanalas.
-     * @param syndromeTable     syndromų lentelė.
-     * @return                  grąžinamas iš kanalo gautas ir galimai ištaisytas vektorius.
-     */
-    public static int[][] encodeSendDecode(int[][] vectors, CodeData codeData, Channel channel, SyndromeTable syndromeTable) {
-        int[][] newVectors = new int[vectors.length][codeData.getN()];
-        // Šiame cikle vyksta užkodavimas, siuntimas, klaidų taisymas.
-        for(int i = 0; i < newVectors.length; i++) {
-            newVectors[i] = CodeMath.encodeVector(vectors[i], codeData.getMatrix(), codeData.getK(), codeData.getN());
-            newVectors[i] = channel.transmit(newVectors[i]);
-            newVectors[i] = CodeMath.decodeVector(syndromeTable, codeData, newVectors[i]);
-        }
-        return newVectors;
-    }
-
-    /**
-     * Bitų seka išskaidoma į reikiamo ilgio vektorius.
-     * @param binaryText        bitų seka.
-     * @param codeData          kodo parametrai.
-     * @return                  grąžina vektorių masyvą (galima sakyti, matricą), kuriame yra žinutė.
-     */
-    public static int[][] splitToVectors(String binaryText, CodeData codeData) {
-        int vectorCount = binaryText.length() / codeData.getK();
-        int additionalBitsToAdd = codeData.getK() - binaryText.length() % codeData.getK();
-        if(additionalBitsToAdd == codeData.getK()) additionalBitsToAdd = 0;
-        if(additionalBitsToAdd != 0) vectorCount+=1;
-        int[][] vectors = new int[vectorCount][codeData.getK()];
-        int m = 0;
-        int position = 0;
-        for(int i = 0; i < binaryText.length(); i++) {
-            vectors[position][m] = TextUtils.charBitToInt(binaryText.charAt(i));
-            m++;
-            if(m == codeData.getK()) {
-                m = 0;
-                position++;
-            }
-        }
-        return vectors;
-    }
-
 }
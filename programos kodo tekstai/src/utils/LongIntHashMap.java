@@ -0,0 +1,97 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Primityvi atviro adresavimo ("open addressing") maišos lentelė, kurioje raktai yra "long", o reikšmės - neneigiami
+ * "int" skaičiai. Naudojama vietoje "HashMap", kad nereikėtų kurti objektų kiekvienam įrašui: didelėse sindromų
+ * lentelėse tai sutaupo daug atminties.
+ * Tuščia vieta žymima neigiama reikšme, todėl neigiamų reikšmių saugoti negalima.
+ */
+public class LongIntHashMap {
+
+    public static final int NO_VALUE = -1; // Grąžinama, kai rakto lentelėje nėra.
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1; // Užpildymas ne didesnis nei 0.5.
+        allocate(capacity);
+    }
+
+    /**
+     * Įdedama reikšmė, jeigu tokio rakto lentelėje dar nėra.
+     * @param key       raktas.
+     * @param value     neneigiama reikšmė.
+     * @return          grąžina true, jeigu reikšmė buvo įdėta.
+     */
+    public boolean putIfAbsent(long key, int value) {
+        if(value < 0) throw new IllegalArgumentException("Neigiamų reikšmių saugoti negalima: " + value);
+        int slot = findSlot(keys, values, mask, key);
+        if(values[slot] != NO_VALUE) return false;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if(size * 2 > values.length) rehash(values.length << 1);
+        return true;
+    }
+
+    /**
+     * @param key       raktas.
+     * @return          grąžina rakto reikšmę arba NO_VALUE, jeigu rakto nėra.
+     */
+    public int get(long key) {
+        return values[findSlot(keys, values, mask, key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldValues.length; i++) {
+            if(oldValues[i] != NO_VALUE) {
+                int slot = findSlot(keys, values, mask, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Tiesinis zondavimas: ieškoma rakto arba pirmos tuščios vietos.
+     */
+    private static int findSlot(long[] keys, int[] values, int mask, long key) {
+        int slot = mix(key) & mask;
+        while(values[slot] != NO_VALUE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Sindromų bitai dažnai skiriasi tik keliais žemiausiais bitais, todėl raktas išmaišomas (MurmurHash3 pabaiga).
+     */
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+}
@@ -1,8 +1,5 @@
 package utils;
 
-import data.CodeData;
-import java.math.BigInteger;
-
 /**
  * Šios klasės tikslas palengvinti vartotojo įvesties nuskaitymą, bei programos duomenų išvedimą vartotojui.
  */
@@ -43,19 +40,6 @@ public class TextUtils {
         System.out.println();
     }
 
-    /**
-     * Grąžinama vektoriaus eilutė pakeičiant bitų masyvą į "String".
-     * @param code      bitų masyvas.
-     * @return          "String" vektoriaus eilutė.
-     */
-    public static String intArrayToString(int[] code) {
-        StringBuilder text = new StringBuilder();
-        for (int j : code) {
-            text.append(j);
-        }
-        return text.toString();
-    }
-
     /**
      * Ieškoma pozicijų, kuriose buvo padarytos klaidos.
      * @param encoded       užkoduotas vektorius, prieš jį siunčiant į kanalą.
@@ -87,60 +71,4 @@ public class TextUtils {
         return text.toString();
     }
 
-    /**
-     * Kadangi daugumoje vietoje naudojama bitų eilutė, tenka keisti bitų simbolius į skaičius.
-     * @param bit           bito simbolis.
-     * @return              bitas skaičiaus pavidalu.
-     */
-    public static int charBitToInt(char bit) {
-        return bit == '0' ? 0 : 1;
-    }
-
-    /**
-     * Iš galimai iškraipytas bitų sekos, pasinaudojant "BigInteger" klasės metodu "toByteArray()",
-     * surandamas teksto atitikmuo.
-     * @param corruptedVectors          galimai iškraipytų vektorių rinkinys.
-     * @param withCode                  klausiama, ar vektorių rinkinys užkoduotas.
-     * @param codeData                  kodo parametrai.
-     * @param additionalBitsToAdd       nurodoma, kiek papildomų bitų reikėjo pridėti, kad visi vektoriai
-     *                                  būtų reikiamo ilgio.
-     * @return                          grąžinamas galimai iškraipytas tekstas.
-     */
-    public static String getCorruptedText(int[][] corruptedVectors, boolean withCode, CodeData codeData, int additionalBitsToAdd) {
-        String corruptedBinary = getCorruptedBinary(corruptedVectors, withCode, codeData, additionalBitsToAdd);
-        return new String(new BigInteger(corruptedBinary, 2).toByteArray());
-    }
-
-    /**
-     * Iš kanalu gauto galimai iškrapytų vektorių rinkinio gaunama bitų seka.
-     * Programos efektyvumui pagerinti naudojamas "StringBuilder".
-     * @param corruptedVectors      galimai iškraipytų vektorių rinkinys.
-     * @param withCode              klausiama, ar vektorių rinkinys buvo užkoduotas, jei taip, reikės
-     *                              atkoduoti numetant kodo pabaigą.
-     * @param codeData              kodo parametrai.
-     * @param additionalBitsToAdd   nurodoma, kiek bitų buvo pridėti siekiant, kad visi siunčiami vektoriai
-     *                              būtų vienodo ilgio.
-     * @return                      grąžinama galimai iškraipyta bitų seka.
-     */
-    public static String getCorruptedBinary(int[][] corruptedVectors, boolean withCode, CodeData codeData, int additionalBitsToAdd) {
-        StringBuilder corruptedBinary = new StringBuilder();
-        for (int[] corruptedVector : corruptedVectors) {
-            if (withCode) corruptedBinary.append(TextUtils.codeToMessage(corruptedVector, codeData.getK()));
-            else corruptedBinary.append(TextUtils.intArrayToString(corruptedVector));
-        }
-        corruptedBinary = new StringBuilder(corruptedBinary.substring(0, corruptedBinary.length() - additionalBitsToAdd)); // Numetam prirašytus bitus.
-        return corruptedBinary.toString();
-    }
-
-    /**
-     * Kadangi spalvos turi būti vieno baito, prie gauto dvejetainio
-     * skaičiaus pradžios prirašoma tiek nulių, kad eilutė turėtų 8 simbolius.
-     * @param binary            dvejetainis skaičius-eilutė.
-     * @return                  dvejetainis skaičius-eilutė, turinti 8 simbolius.
-     */
-    public static String addLeadingZerosToByte(String binary) {
-        int amountToAdd = 8 - binary.length();
-        return "0".repeat(Math.max(0, amountToAdd)) + binary;
-    }
-
 }